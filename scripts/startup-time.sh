@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Measure the time to the first response of the application: start it, poll a conversion until it answers, and print
+# the wall-clock milliseconds from launch. Any arguments are passed to java before the main class, e.g.
+#   scripts/startup-time.sh -cp 'app:app/lib/*' com.adobe.aem.AEMApplication --spring.profiles.active=fast-startup
+# Without arguments the executable jar in target is started. Prints "time-to-first-response-ms=<n>" for CI.
+set -euo pipefail
+
+PORT=${PORT:-8097}
+URL="http://localhost:${PORT}/romannumeral?query=1"
+if [ "$#" -eq 0 ]; then
+    set -- -jar "$(ls target/*.jar | head -n 1)"
+fi
+
+start=$(date +%s%N)
+java "$@" --server.port="${PORT}" > /tmp/startup-time.log 2>&1 &
+pid=$!
+trap 'kill ${pid} 2> /dev/null && wait ${pid} 2> /dev/null || true' EXIT
+
+until curl -fs -o /dev/null "${URL}"; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+        echo "application exited before responding, see /tmp/startup-time.log" >&2
+        exit 1
+    fi
+    sleep 0.02
+done
+end=$(date +%s%N)
+
+echo "time-to-first-response-ms=$(( (end - start) / 1000000 ))"
@@ -0,0 +1,58 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.domain.RomanNumeral;
+import com.adobe.aem.service.AEMService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for AEMService arithmetic on Roman numerals. Run it with -prof gc to check that nothing is
+ * allocated, the results are the shared RomanNumeral values of the lookup table.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ArithmeticBenchmark {
+
+    private AEMService service;
+
+    @Setup
+    public void setUp() {
+        service = new AEMService(1, 3999);
+    }
+
+    /**
+     * 3888 has the longest Roman numeral in range: MMMDCCCLXXXVIII.
+     */
+    @Benchmark
+    public String add() {
+        return service.add("MDCCC", "MMLXXXVIII", 1, 3999).toString();
+    }
+
+    @Benchmark
+    public RomanNumeral subtract() {
+        return service.subtract("MMMDCCCLXXXVIII", "MCMXCIV", 1, 3999);
+    }
+
+    @Benchmark
+    public int compare() {
+        return service.compare("MCMXCIV", "MMMDCCCLXXXVIII", 1, 3999);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.trace.Tracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for AEMService conversions of single numbers and of the full range. Run it with
+ * -p tracing=false,true to measure the cost of the flight recorder events.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ConversionBenchmark {
+
+    @Param("false")
+    public boolean tracing;
+
+    private AEMService service;
+
+    @Setup
+    public void setUp() {
+        Tracing.setEnabled(tracing);
+        service = new AEMService(1, 3999);
+    }
+
+    @Benchmark
+    public String convertSingle() {
+        return service.convert(5, 1, 3999);
+    }
+
+    /**
+     * 3888 has the longest Roman numeral in range: MMMDCCCLXXXVIII.
+     */
+    @Benchmark
+    public String convertWorstCase() {
+        return service.convert(3888, 1, 3999);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Conversions convertFullRange() {
+        return service.convert(1, 3999, 1, 3999);
+    }
+
+}
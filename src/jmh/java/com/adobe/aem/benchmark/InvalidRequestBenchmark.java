@@ -0,0 +1,75 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.AEMApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for valid and invalid queries against a running application over HTTP, so the cost of
+ * exception handling and error rendering in the servlet container is included.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class InvalidRequestBenchmark {
+
+    @Param({"3888", "abc", "4000", "   "})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private URL url;
+    private final byte[] buffer = new byte[8192];
+
+    @Setup
+    public void setUp() throws IOException {
+        // a single client calling in a loop would otherwise only measure rate limit rejections
+        context = SpringApplication.run(AEMApplication.class, "--server.port=0", "--logging.level.com.adobe.aem=WARN",
+                "--logging.config=classpath:logback-benchmark.xml", "--romannumeral.ratelimit.enabled=false");
+        String port = context.getEnvironment().getProperty("local.server.port");
+        url = new URL("http://localhost:" + port + "/romannumeral?query=" + URLEncoder.encode(query, "UTF-8"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int convert() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        int status = connection.getResponseCode();
+        // drain the body so the connection is kept alive for the next request
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            while (body != null && body.read(buffer) >= 0) {
+                // discard
+            }
+        }
+        return status;
+    }
+
+}
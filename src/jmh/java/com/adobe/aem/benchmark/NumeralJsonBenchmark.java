@@ -0,0 +1,116 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.controller.NumeralJsonHttpMessageConverter;
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.service.AEMService;
+import net.minidev.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for writing responses to JSON, comparing Spring's Jackson message converter writing the
+ * json-smart JSONObject responses with the NumeralJsonHttpMessageConverter writing the domain objects. Both write to
+ * an output stream that discards the bytes, so only the cost of rendering is measured.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class NumeralJsonBenchmark {
+
+    private final MappingJackson2HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter();
+    private final NumeralJsonHttpMessageConverter numeralConverter = new NumeralJsonHttpMessageConverter();
+
+    private Numeral numeral;
+    private Conversions conversions;
+    private OutputStream body;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        numeral = new Numeral("3888", "MMMDCCCLXXXVIII");
+        conversions = new AEMService(1, 3999).convert(1, 3999, 1, 3999);
+        body = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public void jacksonSingle() throws IOException {
+        // the JSONObject is built per request by the controller, so it is part of the cost
+        jacksonConverter.write(numeral.toJsonObject(), MediaType.APPLICATION_JSON, new DiscardingMessage(body));
+    }
+
+    @Benchmark
+    public void numeralSingle() throws IOException {
+        numeralConverter.write(numeral, MediaType.APPLICATION_JSON, new DiscardingMessage(body));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void jacksonFullRange() throws IOException {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("conversions", conversions.getConversions());
+        jacksonConverter.write(jsonObject, MediaType.APPLICATION_JSON, new DiscardingMessage(body));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void numeralFullRange() throws IOException {
+        numeralConverter.write(conversions, MediaType.APPLICATION_JSON, new DiscardingMessage(body));
+    }
+
+    /**
+     * This is the response of a single request, with fresh headers like the servlet response has.
+     */
+    private static final class DiscardingMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body;
+
+        private DiscardingMessage(OutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+}
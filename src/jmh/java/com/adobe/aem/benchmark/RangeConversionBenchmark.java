@@ -0,0 +1,62 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.service.AEMService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for finding the range size from which parallel conversion pays off. Compare the sequential
+ * and parallel scores per span without the table, the smallest span where parallel wins is the value for
+ * romannumeral.parallel.threshold. Ranges served from the table are only copied and never split.
+ * Results only make sense on a machine with several cores.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class RangeConversionBenchmark {
+
+    @Param({"16", "256", "1024", "2048", "3999"})
+    private int span;
+
+    // 3999 serves the range from the lookup table, 0 converts every number
+    @Param({"3999", "0"})
+    private int tableMax;
+
+    private AEMService sequentialService;
+    private AEMService parallelService;
+
+    @Setup
+    public void setUp() {
+        sequentialService = new AEMService(1, tableMax, Integer.MAX_VALUE);
+        parallelService = new AEMService(1, tableMax, 1);
+    }
+
+    @Benchmark
+    public Conversions sequential() {
+        return sequentialService.convert(1, span, 1, 3999);
+    }
+
+    @Benchmark
+    public Conversions parallel() {
+        return parallelService.convert(1, span, 1, 3999);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.adobe.aem.benchmark;
+
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.util.RequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the benchmark for RequestValidator with valid and invalid inputs.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class RequestValidatorBenchmark {
+
+    @Param({"3888", " 3888 ", "   ", "abc", "4000", "99999999999"})
+    private String request;
+
+    private final RequestValidator validator = new RequestValidator(new SimpleMeterRegistry());
+
+    @Benchmark
+    public Object validate() {
+        try {
+            return validator.validate(request, 1, 3999);
+        } catch (InvalidRequestException e) {
+            return e;
+        }
+    }
+
+}
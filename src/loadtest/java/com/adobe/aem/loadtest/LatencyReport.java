@@ -0,0 +1,98 @@
+package com.adobe.aem.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This is the report of a load test: throughput, failed requests and the latency percentiles of every kind of request,
+ * recorded in microseconds and printed in milliseconds. Latency is corrected for coordinated omission, service time
+ * is not.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class LatencyReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final double rate;
+    private final int connections;
+    private final int durationSeconds;
+    private final Map<RequestMix.Kind, Histogram> latency = new EnumMap<>(RequestMix.Kind.class);
+    private final Map<RequestMix.Kind, Histogram> serviceTime = new EnumMap<>(RequestMix.Kind.class);
+    private final Map<RequestMix.Kind, Long> unexpected = new EnumMap<>(RequestMix.Kind.class);
+    private final Histogram totalLatency = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram totalServiceTime = new Histogram(SIGNIFICANT_DIGITS);
+    private long rateLimited;
+    private long failures;
+
+    LatencyReport(double rate, int connections, int durationSeconds) {
+        this.rate = rate;
+        this.connections = connections;
+        this.durationSeconds = durationSeconds;
+    }
+
+    void add(Map<RequestMix.Kind, Histogram> latency, Map<RequestMix.Kind, Histogram> serviceTime,
+             Map<RequestMix.Kind, Long> unexpected, long rateLimited, long failures) {
+        latency.forEach((kind, histogram) -> {
+            this.latency.computeIfAbsent(kind, k -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram);
+            totalLatency.add(histogram);
+        });
+        serviceTime.forEach((kind, histogram) -> {
+            this.serviceTime.computeIfAbsent(kind, k -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram);
+            totalServiceTime.add(histogram);
+        });
+        unexpected.forEach((kind, count) -> this.unexpected.merge(kind, count, Long::sum));
+        this.rateLimited += rateLimited;
+        this.failures += failures;
+    }
+
+    /**
+     * Print the summary of the run.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        long completed = totalLatency.getTotalCount();
+        long unexpectedTotal = unexpected.values().stream().mapToLong(Long::longValue).sum();
+        out.printf("Target %.0f req/s over %d connections for %d s%n", rate, connections, durationSeconds);
+        out.printf("Completed %d requests, %.1f req/s, %d unexpected status, %d rate limited (429), %d failed%n",
+                completed, (double) completed / durationSeconds, unexpectedTotal, rateLimited, failures);
+        out.println();
+        out.println("Latency from the scheduled send time, corrected for coordinated omission (ms)");
+        printTable(out, latency, totalLatency);
+        out.println();
+        out.println("Service time from the actual send time, uncorrected (ms)");
+        printTable(out, serviceTime, totalServiceTime);
+    }
+
+    /**
+     * Print the full percentile distribution of the corrected latency of all requests, in milliseconds, in the .hgrm
+     * format read by the HdrHistogram plotter.
+     *
+     * @param out the stream to print to
+     */
+    public void printDistribution(PrintStream out) {
+        totalLatency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+
+    private void printTable(PrintStream out, Map<RequestMix.Kind, Histogram> byKind, Histogram total) {
+        out.printf("%-8s %9s %9s %9s %9s %9s %9s%n", "kind", "count", "p50", "p90", "p99", "p99.9", "max");
+        byKind.forEach((kind, histogram) -> printRow(out, kind.name().toLowerCase(), histogram));
+        printRow(out, "all", total);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram) {
+        out.printf("%-8s %9d", name, histogram.getTotalCount());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+        }
+        out.printf(" %9.2f%n", histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+}
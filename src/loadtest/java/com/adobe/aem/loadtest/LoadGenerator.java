@@ -0,0 +1,167 @@
+package com.adobe.aem.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This is the open-loop traffic generator of the load test. Requests are scheduled at a fixed rate, independent of how
+ * fast the server answers, and every connection thread takes the next slot of the schedule. Latency is measured from
+ * the time a request was scheduled, not from the time it was sent, so requests queued behind a slow response are not
+ * left out of the results (coordinated omission). The time from sending to receiving the response is recorded
+ * separately as service time.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class LoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String baseUrl;
+    private final RequestMix mix;
+    private final double rate;
+    private final int connections;
+
+    /**
+     * Create a generator sending requests of the mix to a server.
+     *
+     * @param baseUrl the URL of the server, e.g. http://localhost:8080
+     * @param mix the mix of requests
+     * @param rate the number of requests scheduled per second
+     * @param connections the number of connections, each sending one request at a time
+     */
+    public LoadGenerator(String baseUrl, RequestMix mix, double rate, int connections) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.rate = rate;
+        this.connections = connections;
+    }
+
+    /**
+     * Send requests at the configured rate for the warmup and then the measured duration. Only requests scheduled after
+     * the warmup are recorded.
+     *
+     * @param warmupSeconds the number of seconds before recording starts
+     * @param durationSeconds the number of seconds recorded
+     * @return LatencyReport the merged results of all connections
+     * @throws InterruptedException if interrupted while waiting for the connections to finish
+     */
+    public LatencyReport run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicLong schedule = new AtomicLong();
+
+        List<Worker> workers = new ArrayList<>(connections);
+        List<Thread> threads = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            Worker worker = new Worker(schedule, start, intervalNanos, measureStart, end);
+            Thread thread = new Thread(worker, "loadtest-" + i);
+            thread.setDaemon(true);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyReport report = new LatencyReport(rate, connections, durationSeconds);
+        for (Worker worker : workers) {
+            report.add(worker.latency, worker.serviceTime, worker.unexpected, worker.rateLimited, worker.failures);
+        }
+        return report;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final AtomicLong schedule;
+        private final long start;
+        private final double intervalNanos;
+        private final long measureStart;
+        private final long end;
+        private final byte[] buffer = new byte[8192];
+
+        private final Map<RequestMix.Kind, Histogram> latency = new EnumMap<>(RequestMix.Kind.class);
+        private final Map<RequestMix.Kind, Histogram> serviceTime = new EnumMap<>(RequestMix.Kind.class);
+        private final Map<RequestMix.Kind, Long> unexpected = new EnumMap<>(RequestMix.Kind.class);
+        private long rateLimited;
+        private long failures;
+
+        private Worker(AtomicLong schedule, long start, double intervalNanos, long measureStart, long end) {
+            this.schedule = schedule;
+            this.start = start;
+            this.intervalNanos = intervalNanos;
+            this.measureStart = measureStart;
+            this.end = end;
+            for (RequestMix.Kind kind : mix.getKinds()) {
+                // auto-resizing, so latencies of any length can be recorded
+                latency.put(kind, new Histogram(SIGNIFICANT_DIGITS));
+                serviceTime.put(kind, new Histogram(SIGNIFICANT_DIGITS));
+                unexpected.put(kind, 0L);
+            }
+        }
+
+        @Override
+        public void run() {
+            Random random = ThreadLocalRandom.current();
+            while (true) {
+                long intended = start + (long) (schedule.getAndIncrement() * intervalNanos);
+                if (intended >= end) {
+                    return;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                RequestMix.Kind kind = mix.nextKind(random);
+                int status = send(mix.path(kind, random));
+                long done = System.nanoTime();
+                if (intended < measureStart) {
+                    continue;
+                }
+                latency.get(kind).recordValue(TimeUnit.NANOSECONDS.toMicros(done - intended));
+                serviceTime.get(kind).recordValue(TimeUnit.NANOSECONDS.toMicros(done - now));
+                if (status < 0) {
+                    failures++;
+                } else if (status == 429) {
+                    rateLimited++;
+                } else if (status != kind.getExpectedStatus()) {
+                    unexpected.merge(kind, 1L, Long::sum);
+                }
+            }
+        }
+
+        private int send(String path) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+                int status = connection.getResponseCode();
+                // drain the body so the connection is kept alive for the next request
+                try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    while (body != null && body.read(buffer) >= 0) {
+                        // discard
+                    }
+                }
+                return status;
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+    }
+
+}
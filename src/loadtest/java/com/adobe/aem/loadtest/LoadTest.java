@@ -0,0 +1,97 @@
+package com.adobe.aem.loadtest;
+
+import com.adobe.aem.AEMApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is the entry point of the load test. It starts the application on a random port, unless --url points at a
+ * server started separately, and drives it with a mix of single, range and invalid queries at a fixed rate.
+ * Options of the load test:
+ * --rate=requests per second (default 1000), --duration=seconds recorded (default 30), --warmup=seconds before
+ * recording (default 10), --connections=concurrent connections (default 16), --mix=kind=weight pairs (default
+ * single=80,range=15,invalid=5), --range-size=largest range (default 100), --url=server to test instead of starting one,
+ * --hgrm=file to write the latency distribution to.
+ * Any other argument is passed to the application, so settings can be compared, e.g. --server.tomcat.max-threads=20,
+ * --romannumeral.cache.enabled=false or --spring.profiles.active=reactive, which needs the reactive Maven profile too.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("rate", "1000");
+        options.put("duration", "30");
+        options.put("warmup", "10");
+        options.put("connections", "16");
+        options.put("mix", "single=80,range=15,invalid=5");
+        options.put("range-size", "100");
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : "";
+            if (options.containsKey(name) || "url".equals(name) || "hgrm".equals(name)) {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        int connections = Integer.parseInt(options.get("connections"));
+        // the JDK keeps only 5 idle connections per server by default, every connection beyond would be reopened
+        System.setProperty("http.maxConnections", String.valueOf(connections));
+        RequestMix mix = RequestMix.parse(options.get("mix"), Integer.parseInt(options.get("range-size")));
+
+        ConfigurableApplicationContext context = null;
+        String url = options.get("url");
+        if (url == null) {
+            // devtools would restart the application in a new class loader by calling main again
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = SpringApplication.run(AEMApplication.class, withDefaults(applicationArgs));
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LatencyReport report = new LoadGenerator(url, mix, Double.parseDouble(options.get("rate")), connections)
+                    .run(Integer.parseInt(options.get("warmup")), Integer.parseInt(options.get("duration")));
+            report.print(System.out);
+            if (options.containsKey("hgrm")) {
+                try (PrintStream out = new PrintStream(options.get("hgrm"), "UTF-8")) {
+                    report.printDistribution(out);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("Cannot write the latency distribution: " + e.getMessage());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static String[] withDefaults(List<String> applicationArgs) {
+        List<String> result = new ArrayList<>(applicationArgs);
+        // a single load generator would otherwise mostly measure rate limit rejections
+        addDefault(result, "romannumeral.ratelimit.enabled", "false");
+        addDefault(result, "server.port", "0");
+        addDefault(result, "logging.config", "classpath:logback-loadtest.xml");
+        return result.toArray(new String[0]);
+    }
+
+    private static void addDefault(List<String> args, String name, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+            args.add("--" + name + "=" + value);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.adobe.aem.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This is the weighted mix of requests sent by the load test: single conversions of a random number, range
+ * conversions of a random window, and invalid queries that are answered with 400 Bad Request.
+ * The mix is written as kind=weight pairs, e.g. "single=80,range=15,invalid=5".
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class RequestMix {
+
+    private static final int MAX_NUMBER = 3999;
+    private static final String[] INVALID_QUERIES = {"0", "4000", "-7", "abc", "12x", "%20", ""};
+
+    public enum Kind {
+        SINGLE(200), RANGE(200), INVALID(400);
+
+        private final int expectedStatus;
+
+        Kind(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+
+        public int getExpectedStatus() {
+            return expectedStatus;
+        }
+    }
+
+    private final Kind[] kinds;
+    private final int[] cumulativeWeights;
+    private final int rangeSize;
+
+    private RequestMix(Map<Kind, Integer> weights, int rangeSize) {
+        this.kinds = weights.keySet().toArray(new Kind[0]);
+        this.cumulativeWeights = new int[kinds.length];
+        int total = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            total += weights.get(kinds[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * Parse a mix of kind=weight pairs separated by commas.
+     *
+     * @param mix the mix, e.g. "single=80,range=15,invalid=5"
+     * @param rangeSize the largest number of conversions in a range request
+     * @return RequestMix the parsed mix
+     */
+    public static RequestMix parse(String mix, int rangeSize) {
+        Map<Kind, Integer> weights = new EnumMap<>(Kind.class);
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must be kind=weight, found: " + pair);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights must not be negative, found: " + pair);
+            }
+            if (weight > 0) {
+                weights.put(Kind.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix must have at least one positive weight: " + mix);
+        }
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("Range size must be positive: " + rangeSize);
+        }
+        return new RequestMix(weights, rangeSize);
+    }
+
+    /**
+     * Pick the kind of the next request.
+     *
+     * @param random the random source of the calling thread
+     * @return Kind the kind of request
+     */
+    public Kind nextKind(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < kinds.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return kinds[i];
+            }
+        }
+        throw new IllegalStateException("Weights do not cover " + pick);
+    }
+
+    /**
+     * Build the path and query of a request of the given kind.
+     *
+     * @param kind the kind of request
+     * @param random the random source of the calling thread
+     * @return String the path and query, relative to the server
+     */
+    public String path(Kind kind, Random random) {
+        switch (kind) {
+            case SINGLE:
+                return "/romannumeral?query=" + (1 + random.nextInt(MAX_NUMBER));
+            case RANGE:
+                int size = 1 + random.nextInt(Math.min(rangeSize, MAX_NUMBER));
+                int min = 1 + random.nextInt(MAX_NUMBER - size + 1);
+                return "/romannumeral?min=" + min + "&max=" + (min + size - 1);
+            case INVALID:
+                return "/romannumeral?query=" + INVALID_QUERIES[random.nextInt(INVALID_QUERIES.length)];
+            default:
+                throw new IllegalArgumentException("Unknown request kind: " + kind);
+        }
+    }
+
+    public Kind[] getKinds() {
+        return kinds.clone();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.adobe.aem.actuator;
+
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.service.NumeralTable;
+import com.adobe.aem.service.RangeReloadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * This is the actuator endpoint of the range of numbers accepted in the standard notation, so the range can be changed
+ * without a restart. GET /actuator/numeralrange returns the current range, POST /actuator/numeralrange with
+ * {"min": {integer}, "max": {integer}} reloads it. The lookup table of the new range is built in the background while
+ * requests are still served from the old one, then a RangeReloadedEvent switches the controllers to the new range and
+ * clears the response cache.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "numeralrange")
+@Slf4j
+public class RangeEndpoint {
+
+    private final AEMService service;
+    private final ApplicationEventPublisher publisher;
+    private volatile NumeralRange range;
+
+    /**
+     * Create the endpoint for the range configured in application.properties.
+     *
+     * @param min the configured minimum value defined in application.properties
+     * @param max the configured maximum value defined in application.properties
+     * @param service the service whose lookup table is rebuilt
+     * @param publisher the publisher of the RangeReloadedEvent
+     */
+    public RangeEndpoint(@Value("${romannumeral.number.min:1}") int min,
+                         @Value("${romannumeral.number.max:3999}") int max,
+                         AEMService service, ApplicationEventPublisher publisher) {
+        this.range = new NumeralRange(min, max);
+        this.service = service;
+        this.publisher = publisher;
+    }
+
+    @ReadOperation
+    public NumeralRange range() {
+        return range;
+    }
+
+    /**
+     * Reload the range. Concurrent reloads are applied one after the other, so the last one wins.
+     *
+     * @param min the new minimum number accepted
+     * @param max the new maximum number accepted
+     * @return NumeralRange the range in use once the reload is complete
+     * @throws InvalidEndpointRequestException if the range is empty or not within 1-3999, answered with 400
+     */
+    @WriteOperation
+    public synchronized NumeralRange reload(int min, int max) {
+        if (min < 1 || max > NumeralTable.STANDARD_MAX || min > max) {
+            String reason = String.format("Range must be within 1-%d with min not greater than max, found %d-%d",
+                    NumeralTable.STANDARD_MAX, min, max);
+            throw new InvalidEndpointRequestException(reason, reason);
+        }
+        NumeralRange next = new NumeralRange(min, max);
+        try {
+            service.reload(min, max).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Rebuilding the lookup table for " + next + " failed", e.getCause());
+        }
+        range = next;
+        publisher.publishEvent(new RangeReloadedEvent(this, next));
+        log.info("Reloaded range {}", next);
+        return next;
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.adobe.aem.cache;
+
+import com.adobe.aem.controller.NumeralBinaryHttpMessageConverter;
+import com.adobe.aem.domain.Notation;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This is the identity of the conversion requests handled by the filters of this package. Requests that get the same
+ * response have the same key, whatever the order, spacing or leading zeros of their parameters, and whatever Accept
+ * header negotiates the same media type.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+final class ConversionRequests {
+
+    private static final List<String> PATHS = Arrays.asList("/romannumeral", "/romannumeral/parse");
+    // in the order of the converters, the first one is written for */* or a missing Accept header
+    private static final List<MediaType> PRODUCIBLE_TYPES = Arrays.asList(MediaType.APPLICATION_JSON,
+            NumeralBinaryHttpMessageConverter.MEDIA_TYPE);
+
+    private ConversionRequests() {
+    }
+
+    /**
+     * Check if a request is a GET conversion whose response can be shared.
+     *
+     * @param request the request
+     * @return boolean
+     */
+    static boolean isConversion(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && PATHS.contains(path(request));
+    }
+
+    /**
+     * Key of the response of a request. It holds the parameters read by the controller in a fixed order, numbers and
+     * notations in the form they are validated to, and the media type negotiated from the Accept header. The query of
+     * a single conversion is kept as sent, since it is echoed in the response. Values that do not validate are kept as
+     * sent as well, their error responses are never shared.
+     *
+     * @param request the request
+     * @return String the key of the response
+     */
+    static String key(HttpServletRequest request) {
+        String path = path(request);
+        boolean conversion = !path.endsWith("/parse");
+        String min = request.getParameter("min");
+        String max = request.getParameter("max");
+        StringBuilder key = new StringBuilder(path).append('?');
+        if (conversion && min != null && max != null) {
+            key.append("min=").append(number(min)).append("&max=").append(number(max));
+            String offset = request.getParameter("offset");
+            String limit = request.getParameter("limit");
+            key.append("&offset=").append(offset == null ? "0" : number(offset));
+            if (limit != null) {
+                key.append("&limit=").append(number(limit));
+            }
+        } else {
+            key.append("query=").append(request.getParameter("query"));
+        }
+        if (conversion) {
+            key.append("&notation=").append(notation(request.getParameter("notation")));
+        }
+        return key.append('|').append(mediaType(request.getHeader(HttpHeaders.ACCEPT))).toString();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Copy the headers of a response, except those that are set again whenever it is replayed.
+     *
+     * @param response the response
+     * @param excluded the names of the headers not copied
+     * @return Map the values of the headers by name
+     */
+    static Map<String, List<String>> headers(HttpServletResponse response, List<String> excluded) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (excluded.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Number of a parameter as the RequestValidator reads it, spaces around it skipped and leading zeros dropped.
+     *
+     * @param value the parameter
+     * @return String the number, or the parameter as sent if it is not a number of the int range
+     */
+    private static String number(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9' || number > Integer.MAX_VALUE) {
+                return value;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return start == end || number > Integer.MAX_VALUE ? value : String.valueOf(number);
+    }
+
+    private static String notation(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Notation.STANDARD.name();
+        }
+        try {
+            return Notation.valueOf(value.trim().toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Media type of the response to an Accept header, negotiated the way Spring MVC does: the producible type
+     * compatible with the most specific and preferred accepted type, or that accepted type if it is more specific.
+     *
+     * @param accept the Accept header, may be null
+     * @return String the media type of the response, or the header as sent if no producible type is accepted
+     */
+    private static String mediaType(String accept) {
+        if (accept == null || accept.trim().isEmpty()) {
+            return PRODUCIBLE_TYPES.get(0).toString();
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return accept;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType accepted : acceptedTypes) {
+            for (MediaType producible : PRODUCIBLE_TYPES) {
+                if (accepted.isCompatibleWith(producible)) {
+                    return (accepted.isConcrete() ? accepted.removeQualityValue() : producible).toString();
+                }
+            }
+        }
+        return accept;
+    }
+
+}
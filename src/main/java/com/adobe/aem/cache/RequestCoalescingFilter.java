@@ -0,0 +1,188 @@
+package com.adobe.aem.cache;
+
+import com.adobe.aem.ratelimit.RateLimitInterceptor;
+import com.adobe.aem.service.RangeReloadedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the filter that coalesces identical concurrent requests. Only the first of the identical GET /romannumeral
+ * and /romannumeral/parse requests arriving at the same time reaches the controller, the others wait for its response
+ * in a SingleFlight and are sent a copy of it, so a burst of identical range requests computes and serializes the
+ * range once. Requests are identical when they have the same key in ConversionRequests, the same as in the response
+ * cache. Any successful response is shared whatever its size, errors are not and the waiting requests then reach the
+ * controller themselves. Requests sharing a response still pay its rate limit cost, those without enough tokens go on
+ * to the controller and are rejected there.
+ * A waiting request holds its request thread, so requests only wait for romannumeral.coalescing.timeout milliseconds,
+ * a fraction of a second by default, before computing their own response.
+ * It is independent of the response cache and runs after the ResponseCacheFilter, so only cache misses are coalesced.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(value = "romannumeral.coalescing.enabled", matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    // set by the container for the body of every response
+    private static final List<String> EXCLUDED_HEADERS = Arrays.asList(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH);
+
+    private final SingleFlight<String, SharedResponse> flights;
+    private final RateLimitInterceptor rateLimit;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Create the filter, publishing its metrics to the global registry which Spring Boot connects to the actuator
+     * registries.
+     *
+     * @param timeoutMillis the configured number of milliseconds a request waits for an identical one
+     * @param rateLimit the rate limit of the requests, if it is enabled
+     */
+    @Autowired
+    public RequestCoalescingFilter(@Value("${romannumeral.coalescing.timeout:500}") long timeoutMillis,
+                                   ObjectProvider<RateLimitInterceptor> rateLimit) {
+        this(timeoutMillis, rateLimit.getIfAvailable(), Metrics.globalRegistry);
+    }
+
+    /**
+     * Create the filter.
+     *
+     * @param timeoutMillis the number of milliseconds a request waits for an identical one
+     * @param rateLimit the rate limit requests sharing a response pay, null if requests are not limited
+     * @param registry the registry coalescing metrics are published to
+     */
+    public RequestCoalescingFilter(long timeoutMillis, RateLimitInterceptor rateLimit, MeterRegistry registry) {
+        this.flights = new SingleFlight<>("responses", timeoutMillis, registry);
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Stop coalescing with the requests of the old range. This runs after the controllers have switched to the new
+     * range, so requests arriving afterwards do not wait for a response of the old range.
+     *
+     * @param event the event with the reloaded range
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRangeReloaded(RangeReloadedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    SingleFlight<String, ?> getFlights() {
+        return flights;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ConversionRequests.isConversion(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = generation.get() + "|" + ConversionRequests.key(request);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        AtomicBoolean computed = new AtomicBoolean();
+        SharedResponse shared = coalesce(key, () -> {
+            computed.set(true);
+            return compute(request, wrapper, chain);
+        });
+        if (computed.get()) {
+            // computed by this request, also when the response of a concurrent one could not be shared, e.g. an error
+            wrapper.copyBodyToResponse();
+        } else if (rateLimit != null && !rateLimit.tryAdmit(request)) {
+            // rejected by the rate limit in the controller
+            chain.doFilter(request, response);
+        } else {
+            log.debug("Serving '{}' from a concurrent identical request", key);
+            shared.replay(response);
+        }
+    }
+
+    /**
+     * Run the controller for a request, keeping a copy of its response for the identical requests waiting for it.
+     *
+     * @param request the request
+     * @param wrapper the response, buffering the body
+     * @param chain the chain leading to the controller
+     * @return SharedResponse the response, or null if it is not shared
+     * @throws ServletException if the controller fails
+     * @throws IOException if the controller fails
+     */
+    private static SharedResponse compute(HttpServletRequest request, ContentCachingResponseWrapper wrapper,
+                                          FilterChain chain) throws ServletException, IOException {
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            return null;
+        }
+        return new SharedResponse(wrapper.getContentAsByteArray(), wrapper.getContentType(),
+                ConversionRequests.headers(wrapper, EXCLUDED_HEADERS));
+    }
+
+    private SharedResponse coalesce(String key, Callable<SharedResponse> computation)
+            throws ServletException, IOException {
+        try {
+            return flights.execute(key, computation);
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * This is a successful response shared with the identical requests that waited for it.
+     */
+    private static final class SharedResponse {
+
+        private final byte[] body;
+        private final String contentType;
+        private final Map<String, List<String>> headers;
+
+        private SharedResponse(byte[] body, String contentType, Map<String, List<String>> headers) {
+            this.body = body;
+            this.contentType = contentType;
+            this.headers = headers;
+        }
+
+        private void replay(HttpServletResponse response) throws IOException {
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            response.setStatus(HttpServletResponse.SC_OK);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.adobe.aem.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the least recently used cache of serialized responses. It is split into segments, each a least recently used
+ * map guarded by its own lock and bounded by its share of the total size, so concurrent requests for different keys
+ * rarely wait for each other. The size of a response counts its key, headers and bookkeeping on top of its body, so
+ * many small responses cannot hold much more memory than the configured size.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Slf4j
+public class ResponseCache {
+
+    // object headers, map node, header lists and the other references of a cached response, roughly
+    static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    // incremented by clear, so responses computed before a clear are not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Create an empty cache, with as many segments as fit a few of the largest responses each.
+     *
+     * @param maxBytes the maximum total size of the cached responses
+     * @param maxEntryBytes the maximum size of the body of a single cached response
+     * @param registry the registry cache metrics are published to
+     */
+    public ResponseCache(long maxBytes, int maxEntryBytes, MeterRegistry registry) {
+        int count = (int) Math.max(1, Math.min(MAX_SEGMENTS, maxBytes / (4L * (maxEntryBytes + ENTRY_OVERHEAD_BYTES))));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxBytes / count);
+        }
+        this.hits = registry.counter("romannumeral.cache.requests", "result", "hit");
+        this.misses = registry.counter("romannumeral.cache.requests", "result", "miss");
+        this.evictions = registry.counter("romannumeral.cache.evictions");
+        Gauge.builder("romannumeral.cache.entries", this, ResponseCache::size)
+                .description("Number of cached responses")
+                .register(registry);
+        Gauge.builder("romannumeral.cache.size", this, ResponseCache::bytes)
+                .description("Total size of the cached responses, keys and headers included")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Get a cached response and mark it as most recently used in its segment.
+     *
+     * @param key the key of the response
+     * @return Entry the cached response, or null if it is not cached
+     */
+    public Entry get(String key) {
+        Segment segment = segment(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Cache a response, evicting the least recently used responses of its segment until the segment is within its
+     * size again. A response larger than a whole segment is not cached.
+     *
+     * @param key the key of the response
+     * @param entry the response to be cached
+     * @return boolean whether the response was cached
+     */
+    public boolean put(String key, Entry entry) {
+        return put(key, entry, generation());
+    }
+
+    /**
+     * Cache a response unless the cache was cleared since the response started to be computed. The generation is
+     * checked under the lock of the segment, and clear moves to the next generation before it empties any segment, so
+     * a response of an older generation is either rejected or removed by the clear.
+     *
+     * @param key the key of the response
+     * @param entry the response to be cached
+     * @param expectedGeneration the generation of the cache read before the response was computed
+     * @return boolean whether the response was cached
+     */
+    public boolean put(String key, Entry entry, long expectedGeneration) {
+        Segment segment = segment(key);
+        long weight = weight(key, entry);
+        if (weight > segment.maxBytes) {
+            return false;
+        }
+        int evicted = 0;
+        synchronized (segment) {
+            if (expectedGeneration != generation.get()) {
+                return false;
+            }
+            Entry previous = segment.entries.put(key, entry);
+            segment.bytes += weight - (previous == null ? 0 : weight(key, previous));
+            Iterator<Map.Entry<String, Entry>> eldest = segment.entries.entrySet().iterator();
+            while (segment.bytes > segment.maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> next = eldest.next();
+                segment.bytes -= weight(next.getKey(), next.getValue());
+                eldest.remove();
+                evicted++;
+            }
+        }
+        evictions.increment(evicted);
+        return true;
+    }
+
+    /**
+     * Remove all cached responses. Responses that started to be computed before are not cached afterwards.
+     */
+    public void clear() {
+        log.debug("Clearing {} cached responses", size());
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.bytes = 0;
+            }
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public long bytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                bytes += segment.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Size a cached response holds on the heap, its key and headers as UTF-16 strings next to its body.
+     *
+     * @param key the key of the response
+     * @param entry the response
+     * @return long the size of the response in bytes
+     */
+    static long weight(String key, Entry entry) {
+        long chars = key.length() + entry.getEtag().length()
+                + (entry.getContentType() == null ? 0 : entry.getContentType().length());
+        for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+            chars += header.getKey().length();
+            for (String value : header.getValue()) {
+                chars += value.length();
+            }
+        }
+        return entry.size() + 2 * chars + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private Segment segment(String key) {
+        int hash = key.hashCode();
+        // spread the high bits, keys of the same path only differ near the end
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * This is a segment of the cache, guarded by its own monitor.
+     */
+    private static final class Segment {
+
+        private final long maxBytes;
+        // access order, so iteration starts from the least recently used response
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        private Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    /**
+     * This is a cached response, the body is kept serialized together with the headers needed to replay it.
+     */
+    public static final class Entry {
+
+        private final byte[] body;
+        private final String etag;
+        private final String contentType;
+        private final Map<String, List<String>> headers;
+
+        public Entry(byte[] body, String etag, String contentType, Map<String, List<String>> headers) {
+            this.body = body;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.headers = Collections.unmodifiableMap(headers);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public int size() {
+            return body.length;
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.adobe.aem.cache;
+
+import com.adobe.aem.service.RangeReloadedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is the filter that caches the serialized responses of conversions. A conversion only depends on the request,
+ * so successful responses are replayed from a ResponseCache without reaching the controller. Responses are keyed by
+ * ConversionRequests on the validated parameters and the negotiated media type. Every cached response gets a strong
+ * ETag and a short Cache-Control max-age, as a reload of the range can make it out of range, and requests with a
+ * matching If-None-Match get a 304.
+ * Only GET /romannumeral and /romannumeral/parse are cached, streams and batches are passed through. It runs before the
+ * RequestCoalescingFilter, so only cache misses are coalesced.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(value = "romannumeral.cache.enabled", matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    // replayed from the entry or set by this filter on every response
+    private static final List<String> EXCLUDED_HEADERS = Arrays.asList(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+
+    private final ResponseCache cache;
+    private final int maxEntryBytes;
+    private final String cacheControl;
+
+    /**
+     * Create the filter with an empty cache, publishing its metrics to the global registry which Spring Boot connects
+     * to the actuator registries.
+     *
+     * @param maxBytes the configured maximum total size of the cached responses
+     * @param maxEntryBytes the configured maximum size of a single cached response
+     * @param maxAge the configured number of seconds clients and CDNs may reuse a response, 0 to always revalidate
+     */
+    @Autowired
+    public ResponseCacheFilter(@Value("${romannumeral.cache.max-bytes:16777216}") long maxBytes,
+                               @Value("${romannumeral.cache.max-entry-bytes:262144}") int maxEntryBytes,
+                               @Value("${romannumeral.cache.max-age:60}") long maxAge) {
+        this(maxBytes, maxEntryBytes, maxAge, Metrics.globalRegistry);
+    }
+
+    /**
+     * Create the filter with an empty cache.
+     *
+     * @param maxBytes the maximum total size of the cached responses
+     * @param maxEntryBytes the maximum size of a single cached response
+     * @param maxAge the number of seconds clients and CDNs may reuse a response, 0 to always revalidate
+     * @param registry the registry cache metrics are published to
+     */
+    public ResponseCacheFilter(long maxBytes, int maxEntryBytes, long maxAge, MeterRegistry registry) {
+        this.maxEntryBytes = (int) Math.min(maxEntryBytes, maxBytes);
+        this.cache = new ResponseCache(maxBytes, this.maxEntryBytes, registry);
+        // clients and CDNs revalidate every time with a max-age of 0, which is a 304 from this cache
+        this.cacheControl = maxAge > 0 ? "public, max-age=" + maxAge : "public, no-cache";
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Drop the cached responses of the old range, they may now be out of range. This runs after the controllers have
+     * switched to the new range, so a response computed with the old range is always from an older generation and is
+     * not cached.
+     *
+     * @param event the event with the reloaded range
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRangeReloaded(RangeReloadedEvent event) {
+        log.info("Clearing the response cache for the reloaded range {}", event.getRange());
+        cache.clear();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ConversionRequests.isConversion(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = ConversionRequests.key(request);
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            log.debug("Serving '{}' from the response cache", key);
+            replay(entry, request, response);
+            return;
+        }
+
+        // read before the response is computed, a range reloaded meanwhile may have made it stale
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        // errors are not cached, they are cheap and their message may depend on the configured range
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentSize() > maxEntryBytes) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        entry = new ResponseCache.Entry(body, etag(body), wrapper.getContentType(),
+                ConversionRequests.headers(wrapper, EXCLUDED_HEADERS));
+        cache.put(key, entry, generation);
+        setCacheHeaders(entry, wrapper);
+        if (isNotModified(request, entry)) {
+            wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(ResponseCache.Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        entry.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        setCacheHeaders(entry, response);
+        if (isNotModified(request, entry)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (entry.getContentType() != null) {
+            response.setContentType(entry.getContentType());
+        }
+        response.setContentLength(entry.size());
+        response.getOutputStream().write(entry.getBody());
+    }
+
+    private void setCacheHeaders(ResponseCache.Entry entry, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, entry.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    private static String etag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * Check If-None-Match against the ETag of a response, using the weak comparison required for GET.
+     *
+     * @param request the request with the If-None-Match header
+     * @param entry the cached response
+     * @return boolean
+     */
+    private static boolean isNotModified(HttpServletRequest request, ResponseCache.Entry entry) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entry.getEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.adobe.aem.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is the coalescing of identical concurrent computations. The first caller of a key runs the computation, callers
+ * of the same key arriving while it runs wait for it and share its result instead of running their own. Once the
+ * computation is done the key is forgotten, so results are never reused by later callers, that is left to the cache.
+ * If the computation in flight fails or returns null, every waiting caller runs its own computation, as the failure or
+ * the result that cannot be shared may be specific to the caller that ran it. Callers wait for a bounded time, once it
+ * is over they run their own computation as well. Callers that run their own computation count as computed.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final long timeoutMillis;
+    private final Counter computed;
+    private final Counter coalesced;
+
+    /**
+     * Create the coalescing of a kind of computation.
+     *
+     * @param name the name the metrics of the computations are tagged with
+     * @param timeoutMillis the number of milliseconds callers wait for a computation already running
+     * @param registry the registry the metrics are published to
+     */
+    public SingleFlight(String name, long timeoutMillis, MeterRegistry registry) {
+        this.timeoutMillis = timeoutMillis;
+        this.computed = Counter.builder("romannumeral.coalescing.requests")
+                .description("Computations run, or shared with a computation of the same key already running")
+                .tag("name", name)
+                .tag("result", "computed")
+                .register(registry);
+        this.coalesced = Counter.builder("romannumeral.coalescing.requests")
+                .description("Computations run, or shared with a computation of the same key already running")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(registry);
+        Gauge.builder("romannumeral.coalescing.in-flight", flights, ConcurrentMap::size)
+                .description("Computations currently running")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("romannumeral.coalescing.waiting", waiting, AtomicInteger::get)
+                .description("Callers currently waiting for a computation of the same key")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    /**
+     * Run the computation of a key, or wait for the computation of the same key already running and return its result.
+     *
+     * @param key the key identifying the result of the computation
+     * @param computation the computation, only run if no computation of the key is running
+     * @return V the result of this computation or of the one already running
+     * @throws Exception if this computation fails or the caller is interrupted while waiting, failures of the one
+     *                   already running are not thrown
+     */
+    public V execute(K key, Callable<V> computation) throws Exception {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            V result = await(running);
+            if (result != null) {
+                coalesced.increment();
+                return result;
+            }
+            // run again without coalescing, a second failure is then thrown to this caller
+            computed.increment();
+            return computation.call();
+        }
+        computed.increment();
+        try {
+            V result = computation.call();
+            flight.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Wait for the computation already running.
+     *
+     * @param running the computation
+     * @return V its result, or null if it failed, returned null or is still running once the wait is over
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    private V await(CompletableFuture<V> running) throws InterruptedException {
+        waiting.incrementAndGet();
+        try {
+            return running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of computations currently running.
+     *
+     * @return int the number of keys in flight
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * Number of callers currently waiting for a computation of the same key.
+     *
+     * @return int the number of waiting callers
+     */
+    public int waiting() {
+        return waiting.get();
+    }
+
+}
@@ -1,43 +1,114 @@
 package com.adobe.aem.controller;
 
+import com.adobe.aem.domain.Calculation;
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Notation;
 import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.exception.InvalidRequestException;
 import com.adobe.aem.service.AEMService;
+import com.adobe.aem.service.RangeReloadedEvent;
 import com.adobe.aem.util.RequestValidator;
 import lombok.extern.slf4j.Slf4j;
-import net.minidev.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This is the controller class that handles the web calls for this application.
- * Only supported method is GET. URI is /romannumeral?query={integer}
- * Range is currently set to 1-3999.
+ * Supported method is GET, except for batches. URI is /romannumeral?query={integer}
+ * Ranges are paged with offset={integer}&limit={integer}, up to romannumeral.page.max-size numbers per page.
+ * Large ranges can be streamed with /romannumeral/stream?min={integer}&max={integer}
+ * Roman numerals are parsed back to numbers with /romannumeral/parse?query={roman}
+ * Roman numerals are added, subtracted and compared with /romannumeral/add, /romannumeral/subtract and
+ * /romannumeral/compare?first={roman}&second={roman}
+ * Many numbers are converted at once by POSTing a JSON array to /romannumeral/batch
+ * Range is currently set to 1-3999 and can be reloaded through the numeralrange actuator endpoint. Numbers beyond it
+ * are converted with notation=vinculum or notation=parentheses.
+ * Conversions are JSON, or a compact binary encoding with Accept: application/x-romannumeral.
  *
  * @author  Ankith Aiyar
  * @version 1.0
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class AEMController {
 
     /**
-     * Configurable minimum value defined in application.properties
+     * Configurable minimum value defined in application.properties, until the range is reloaded
      */
     @Value("${romannumeral.number.min:1}")
     private int minRange;
 
     /**
-     * Configurable maximum value defined in application.properties
+     * Configurable maximum value defined in application.properties, until the range is reloaded
      */
     @Value("${romannumeral.number.max:3999}")
     private int maxRange;
 
+    /**
+     * Configurable maximum value in the extended notations defined in application.properties
+     */
+    @Value("${romannumeral.extended.max:1000000000}")
+    private int extendedMaxRange;
+
+    /**
+     * Configurable maximum number of conversions in a page of a range defined in application.properties
+     */
+    @Value("${romannumeral.page.max-size:3999}")
+    private int maxPageSize;
+
+    /**
+     * Configurable maximum number of items in a batch defined in application.properties
+     */
+    @Value("${romannumeral.batch.max-size:100000}")
+    private int maxBatchSize;
+
     @Autowired
     private AEMService service;
 
+    @Autowired
+    private RequestValidator validator;
+
+    /**
+     * Range currently accepted, both limits are replaced at once when the range is reloaded
+     */
+    private volatile NumeralRange range;
+
+    @PostConstruct
+    void initRange() {
+        range = new NumeralRange(minRange, maxRange);
+    }
+
+    /**
+     * Switch to a reloaded range, requests already validated finish with the range they started with. The range is
+     * switched before the response cache is cleared, see RangeReloadedEvent.
+     *
+     * @param event the event with the reloaded range
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRangeReloaded(RangeReloadedEvent event) {
+        range = event.getRange();
+    }
+
     /**
      * Default home landing page.
      *
@@ -52,42 +123,202 @@ public class AEMController {
      * GET call to convert a number to a Roman numeral.
      *
      * @param query the input number to be converted
-     * @param min the input number to be converted
-     * @param max the input number to be converted
+     * @param notation the notation of the Roman numeral, standard if not set
      *
-     * @return String the JSON number input and Roman numeral output value
-     * @throws ResponseStatusException if it is on invalid request value
+     * @return Numeral the number input and Roman numeral output value, written by the NumeralJsonHttpMessageConverter
+     * @throws InvalidRequestException if it is on invalid request value, handled by the RestExceptionHandler
      */
     @ResponseBody
     @GetMapping("/romannumeral")
-    public JSONObject convertToRomanNumeral(@RequestParam(value = "query", required = false) String query,
-                                            @RequestParam(value = "min", required = false) String min,
-                                            @RequestParam(value = "max", required = false) String max) {
-        try {
-            log.debug(String.format("Received request to convert \'%s\' to a Roman numeral", query));
-            if (min != null && max != null) {
-                log.debug(String.format("Received request to convert Roman numeral from \'%s\' to \'%s\'", min, max));
-                // normalizing input by removing leading and trailing spaces
-                String normalizedMin = min.trim();
-                String normalizedMax = max.trim();
-                RequestValidator.validate(normalizedMin, normalizedMax, minRange, maxRange);
-                JSONObject romanNumeral = service.convert(normalizedMin, normalizedMax, minRange, maxRange);
-                log.debug(String.format("Finished converting \'%s\' to \'%s\'", normalizedMin, normalizedMax));
-                return romanNumeral;
-            } else {
-                // normalizing input by removing leading and trailing spaces
-                String normalized = query.trim();
-                RequestValidator.validate(normalized, minRange, maxRange);
-                String romanNumeral = service.convert(normalized, minRange, maxRange);
-                log.debug(String.format("Finished converting \'%s\' to \'%s\'", query, romanNumeral));
-                return new Numeral(query, romanNumeral).toJsonObject();
-            }
-
-        // catch all exceptions, do not leave any unhandled
-        } catch (Exception e) {
-            // track unsuccessful requests
-            log.error(String.format("Failed to convert \'%s\' to a Roman numeral", query), e);
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    public Numeral convertToRomanNumeral(@RequestParam(value = "query", required = false) String query,
+                                         @RequestParam(value = "notation", required = false) String notation) {
+        log.debug("Received request to convert '{}' to a Roman numeral", query);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int number = validator.validate(query, accepted.getMin(), maxRange(accepted, style));
+        String romanNumeral = service.convert(number, accepted.getMin(), maxRange(accepted, style), style);
+        log.debug("Finished converting '{}' to '{}'", query, romanNumeral);
+        return new Numeral(query, romanNumeral);
+    }
+
+    /**
+     * GET call to convert a page of a range of numbers to Roman numerals. Only the numbers of the page are converted,
+     * starting directly from the offset. The total size of the range is returned in the X-Total-Count header, the
+     * previous and next pages are linked in the Link header.
+     *
+     * @param min the first number of the range
+     * @param max the last number of the range
+     * @param notation the notation of the Roman numerals, standard if not set
+     * @param offset the position of the first number of the page within the range, 0 if not set
+     * @param limit the maximum number of conversions in the page, the maximum page size if not set
+     * @param request the request, used to link the other pages
+     *
+     * @return ResponseEntity the number inputs and Roman numeral output values of the page, written by the
+     * NumeralJsonHttpMessageConverter
+     * @throws InvalidRequestException if it is on invalid request value, handled by the RestExceptionHandler
+     */
+    @GetMapping(value = "/romannumeral", params = {"min", "max"})
+    public ResponseEntity<Conversions> convertToRomanNumerals(@RequestParam(value = "min") String min,
+                                                              @RequestParam(value = "max") String max,
+                                                              @RequestParam(value = "notation", required = false) String notation,
+                                                              @RequestParam(value = "offset", required = false) String offset,
+                                                              @RequestParam(value = "limit", required = false) String limit,
+                                                              HttpServletRequest request) {
+        log.debug("Received request to convert Roman numeral from '{}' to '{}'", min, max);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int from = validator.validate(min, accepted.getMin(), maxRange(accepted, style));
+        int to = validator.validate(max, accepted.getMin(), maxRange(accepted, style));
+        int pageOffset = offset == null ? 0 : validator.validate("offset", offset, 0, Integer.MAX_VALUE);
+        int pageLimit = limit == null ? maxPageSize : validator.validate("limit", limit, 1, maxPageSize);
+
+        // a page never holds more than the maximum page size, whatever the size of the range
+        long total = Math.max((long) to - from + 1, 0);
+        long first = from + (long) pageOffset;
+        long last = Math.min(to, first + pageLimit - 1);
+        Conversions conversions = first <= last
+                ? service.convert((int) first, (int) last, accepted.getMin(), maxRange(accepted, style), style)
+                : new Conversions((int) Math.min(first, Integer.MAX_VALUE), new ArrayList<>());
+        log.debug("Finished converting '{}' to '{}'", first, last);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header("X-Total-Count", String.valueOf(total));
+        List<String> links = PageLinks.of(request.getRequestURI(), from, to, style, pageOffset, pageLimit, total);
+        if (!links.isEmpty()) {
+            response.header(HttpHeaders.LINK, String.join(", ", links));
         }
+        return response.body(conversions);
+    }
+
+    /**
+     * GET call to convert a range of numbers to Roman numerals. The response has the same JSON as the range
+     * conversion of /romannumeral, but it is written to the client while converting instead of being built in memory.
+     *
+     * @param min the first number of the range
+     * @param max the last number of the range
+     * @param notation the notation of the Roman numerals, standard if not set
+     *
+     * @return ResponseEntity the streamed JSON number inputs and Roman numeral output values
+     * @throws InvalidRequestException if it is on invalid request value, handled by the RestExceptionHandler
+     */
+    @GetMapping("/romannumeral/stream")
+    public ResponseEntity<StreamingResponseBody> streamRomanNumerals(@RequestParam(value = "min") String min,
+                                                                     @RequestParam(value = "max") String max,
+                                                                     @RequestParam(value = "notation", required = false) String notation) {
+        log.debug("Received request to stream Roman numeral from '{}' to '{}'", min, max);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int limit = maxRange(accepted, style);
+        int from = validator.validate(min, accepted.getMin(), limit);
+        int to = validator.validate(max, accepted.getMin(), limit);
+        StreamingResponseBody body =
+                outputStream -> service.convert(from, to, accepted.getMin(), limit, style, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * GET call to parse a Roman numeral to a number.
+     *
+     * @param query the input Roman numeral to be parsed
+     *
+     * @return Numeral the Roman numeral input and number output value, written by the NumeralJsonHttpMessageConverter
+     * @throws InvalidRequestException if it is on invalid request value, handled by the RestExceptionHandler
+     */
+    @ResponseBody
+    @GetMapping("/romannumeral/parse")
+    public Numeral parseRomanNumeral(@RequestParam(value = "query") String query) {
+        log.debug("Received request to parse '{}' to a number", query);
+        // normalizing input by removing leading and trailing spaces
+        NumeralRange accepted = range;
+        int number = service.parse(query.trim(), accepted.getMin(), accepted.getMax());
+        log.debug("Finished parsing '{}' to '{}'", query, number);
+        return new Numeral(query, String.valueOf(number));
+    }
+
+    /**
+     * GET call to add two Roman numerals.
+     *
+     * @param first the Roman numeral added to
+     * @param second the Roman numeral added
+     *
+     * @return Calculation both Roman numerals and their sum
+     * @throws InvalidRequestException if it is on invalid request value or the sum is not within range, handled by the
+     * RestExceptionHandler
+     */
+    @ResponseBody
+    @GetMapping("/romannumeral/add")
+    public Calculation addRomanNumerals(@RequestParam(value = "first") String first,
+                                        @RequestParam(value = "second") String second) {
+        log.debug("Received request to add '{}' and '{}'", first, second);
+        NumeralRange accepted = range;
+        String augend = first.trim();
+        String addend = second.trim();
+        return new Calculation(augend, addend, service.add(augend, addend, accepted.getMin(), accepted.getMax()));
+    }
+
+    /**
+     * GET call to subtract a Roman numeral from another.
+     *
+     * @param first the Roman numeral subtracted from
+     * @param second the Roman numeral subtracted
+     *
+     * @return Calculation both Roman numerals and their difference
+     * @throws InvalidRequestException if it is on invalid request value or the difference is not within range, handled
+     * by the RestExceptionHandler
+     */
+    @ResponseBody
+    @GetMapping("/romannumeral/subtract")
+    public Calculation subtractRomanNumerals(@RequestParam(value = "first") String first,
+                                             @RequestParam(value = "second") String second) {
+        log.debug("Received request to subtract '{}' from '{}'", second, first);
+        NumeralRange accepted = range;
+        String minuend = first.trim();
+        String subtrahend = second.trim();
+        return new Calculation(minuend, subtrahend,
+                service.subtract(minuend, subtrahend, accepted.getMin(), accepted.getMax()));
+    }
+
+    /**
+     * GET call to compare two Roman numerals.
+     *
+     * @param first the first Roman numeral
+     * @param second the second Roman numeral
+     *
+     * @return int -1, 0 or 1 as the first is less than, equal to or greater than the second
+     * @throws InvalidRequestException if it is on invalid request value, handled by the RestExceptionHandler
+     */
+    @ResponseBody
+    @GetMapping(value = "/romannumeral/compare", produces = MediaType.APPLICATION_JSON_VALUE)
+    public int compareRomanNumerals(@RequestParam(value = "first") String first,
+                                    @RequestParam(value = "second") String second) {
+        log.debug("Received request to compare '{}' and '{}'", first, second);
+        NumeralRange accepted = range;
+        return service.compare(first.trim(), second.trim(), accepted.getMin(), accepted.getMax());
+    }
+
+    /**
+     * POST call to convert a JSON array of numbers to Roman numerals. The request is read and the response written
+     * item by item, each item gets its own output or error in the order of the request.
+     *
+     * @param body the request body with the JSON array of numbers
+     * @param response the response the JSON conversions are written to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @PostMapping(value = "/romannumeral/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void convertBatch(InputStream body, HttpServletResponse response) throws IOException {
+        log.debug("Received request to convert a batch to Roman numerals");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        NumeralRange accepted = range;
+        service.convertBatch(body, response.getOutputStream(), accepted.getMin(), accepted.getMax(), maxBatchSize);
+    }
+
+    /**
+     * Maximum number accepted in a notation, the extended notations go beyond the standard range.
+     *
+     * @param accepted the range accepted in the standard notation
+     * @param notation the requested notation
+     * @return int the maximum number accepted
+     */
+    private int maxRange(NumeralRange accepted, Notation notation) {
+        return notation == Notation.STANDARD ? accepted.getMax() : Math.max(accepted.getMax(), extendedMaxRange);
     }
 }
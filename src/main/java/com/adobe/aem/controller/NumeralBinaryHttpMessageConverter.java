@@ -0,0 +1,82 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.trace.SerializationEvent;
+import com.adobe.aem.trace.Tracing;
+import com.adobe.aem.util.NumeralBinaryCodec;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * This is the message converter that writes Numeral and Conversions responses in the compact binary encoding of
+ * NumeralBinaryCodec. It is only used when the client accepts application/x-romannumeral, JSON stays the default.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@Order(1)
+public class NumeralBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    /**
+     * Media type of the binary encoding
+     */
+    public static final String MEDIA_TYPE_VALUE = "application/x-romannumeral";
+
+    /**
+     * Media type of the binary encoding
+     */
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    public NumeralBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Numeral.class || clazz == Conversions.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Numerals are not read from requests", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        SerializationEvent event = null;
+        if (Tracing.isEnabled()) {
+            event = new SerializationEvent();
+            event.begin();
+        }
+        byte[] bytes = value instanceof Numeral
+                ? NumeralBinaryCodec.encode((Numeral) value)
+                : NumeralBinaryCodec.encode((Conversions) value);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+        if (event != null) {
+            // the fields are only filled in if the event is recorded, which needs its duration
+            event.end();
+            if (event.shouldCommit()) {
+                event.format = "binary";
+                event.type = value.getClass().getSimpleName();
+                event.bytes = bytes.length;
+                event.commit();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Calculation;
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.trace.SerializationEvent;
+import com.adobe.aem.trace.Tracing;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * This is the message converter that writes Numeral, Calculation and Conversions responses as JSON. The JSON is
+ * rendered straight into a pooled byte buffer, without the maps and reflection of the json-smart and Jackson
+ * converters. The pool holds at most one buffer per core, whatever the number of request threads.
+ * Spring Boot registers it ahead of the default converters, every other type is still written by Jackson. It is
+ * ordered before the NumeralBinaryHttpMessageConverter, so JSON is written unless binary is explicitly accepted.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@Order(0)
+public class NumeralJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final int INITIAL_BUFFER_BYTES = 256;
+    // buffers grown beyond this by a large range are dropped, the whole standard range still fits
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1 << 18;
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    // responses borrow a buffer and return it once written, responses that find the pool empty get a new one
+    private static final BlockingQueue<JsonBuffer> buffers =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    public NumeralJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Numeral.class || clazz == Calculation.class || clazz == Conversions.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Numerals are not read from requests", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        SerializationEvent event = null;
+        if (Tracing.isEnabled()) {
+            event = new SerializationEvent();
+            event.begin();
+        }
+        JsonBuffer buffer = borrow();
+        try {
+            write(value, buffer);
+            outputMessage.getHeaders().setContentLength(buffer.count);
+            outputMessage.getBody().write(buffer.bytes, 0, buffer.count);
+            if (event != null) {
+                // the fields are only filled in if the event is recorded, which needs its duration
+                event.end();
+                if (event.shouldCommit()) {
+                    event.format = "json";
+                    event.type = value.getClass().getSimpleName();
+                    event.bytes = buffer.count;
+                    event.commit();
+                }
+            }
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Render a Numeral, Calculation or Conversions as JSON.
+     *
+     * @param value the Numeral, Calculation or Conversions to be rendered
+     * @return byte[] the UTF-8 JSON
+     */
+    public static byte[] toJson(Object value) {
+        JsonBuffer buffer = borrow();
+        try {
+            write(value, buffer);
+            return Arrays.copyOf(buffer.bytes, buffer.count);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Number of buffers currently kept for the next responses.
+     *
+     * @return int the number of pooled buffers
+     */
+    static int pooledBuffers() {
+        return buffers.size();
+    }
+
+    private static JsonBuffer borrow() {
+        JsonBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new JsonBuffer();
+    }
+
+    // buffers beyond the capacity of the pool or grown too large are left to the garbage collector
+    private static void release(JsonBuffer buffer) {
+        if (buffer.bytes.length <= MAX_RETAINED_BUFFER_BYTES) {
+            buffer.count = 0;
+            buffers.offer(buffer);
+        }
+    }
+
+    private static void write(Object value, JsonBuffer buffer) {
+        if (value instanceof Numeral) {
+            writeNumeral((Numeral) value, buffer);
+            return;
+        }
+        if (value instanceof Calculation) {
+            writeCalculation((Calculation) value, buffer);
+            return;
+        }
+        List<Numeral> numerals = ((Conversions) value).getConversions();
+        buffer.writeAscii("{\"conversions\":[");
+        for (int i = 0; i < numerals.size(); i++) {
+            if (i > 0) {
+                buffer.writeByte(',');
+            }
+            writeNumeral(numerals.get(i), buffer);
+        }
+        buffer.writeAscii("]}");
+    }
+
+    private static void writeNumeral(Numeral numeral, JsonBuffer buffer) {
+        buffer.writeAscii("{\"input\":");
+        buffer.writeString(numeral.getInteger());
+        buffer.writeAscii(",\"output\":");
+        buffer.writeString(numeral.getRoman());
+        buffer.writeByte('}');
+    }
+
+    // the same JSON as Jackson writes, with the digits of the result written without a String
+    private static void writeCalculation(Calculation calculation, JsonBuffer buffer) {
+        buffer.writeAscii("{\"first\":");
+        buffer.writeString(calculation.getFirst());
+        buffer.writeAscii(",\"second\":");
+        buffer.writeString(calculation.getSecond());
+        buffer.writeAscii(",\"output\":");
+        buffer.writeString(calculation.getResult().toString());
+        buffer.writeAscii(",\"value\":");
+        buffer.writeDigits(calculation.getResult().intValue());
+        buffer.writeByte('}');
+    }
+
+    /**
+     * This is the growable byte buffer JSON is rendered into, strings are escaped and encoded to UTF-8 as they are
+     * written.
+     */
+    private static final class JsonBuffer {
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_BYTES];
+        private int count;
+
+        private void ensureCapacity(int extra) {
+            if (count + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + extra));
+            }
+        }
+
+        private void writeByte(char c) {
+            ensureCapacity(1);
+            bytes[count++] = (byte) c;
+        }
+
+        // only used for the constant parts of the JSON, which are ASCII without anything to escape
+        private void writeAscii(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[count++] = (byte) value.charAt(i);
+            }
+        }
+
+        // only used for positive numbers
+        private void writeDigits(int value) {
+            int length = 1;
+            for (int rest = value / 10; rest > 0; rest /= 10) {
+                length++;
+            }
+            ensureCapacity(length);
+            for (int i = count + length - 1; i >= count; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            count += length;
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeAscii("null");
+                return;
+            }
+            // every char takes at most six bytes, as an escape or as UTF-8
+            ensureCapacity(value.length() * 6 + 2);
+            bytes[count++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        bytes[count++] = '\\';
+                        bytes[count++] = (byte) c;
+                    } else if (c < 0x20) {
+                        writeEscape(c);
+                    } else {
+                        bytes[count++] = (byte) c;
+                    }
+                } else if (c < 0x800) {
+                    bytes[count++] = (byte) (0xc0 | c >> 6);
+                    bytes[count++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[count++] = (byte) (0xf0 | codePoint >> 18);
+                    bytes[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                    bytes[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                    bytes[count++] = (byte) (0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogates cannot be encoded to UTF-8, but they can be escaped
+                    writeEscape(c);
+                } else {
+                    bytes[count++] = (byte) (0xe0 | c >> 12);
+                    bytes[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    bytes[count++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            bytes[count++] = '"';
+        }
+
+        private void writeEscape(char c) {
+            bytes[count++] = '\\';
+            bytes[count++] = 'u';
+            bytes[count++] = HEX[c >> 12];
+            bytes[count++] = HEX[c >> 8 & 0xf];
+            bytes[count++] = HEX[c >> 4 & 0xf];
+            bytes[count++] = HEX[c & 0xf];
+        }
+    }
+
+}
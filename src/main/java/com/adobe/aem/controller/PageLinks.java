@@ -0,0 +1,62 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Notation;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This is the Link header of a page of a range, the same for AEMController and ReactiveAEMController. The links are
+ * relative, so they stay valid behind proxies and in the response cache. They are built from the validated parameters
+rather than the query string, so requests that only differ in the form of their parameters get the same links.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+final class PageLinks {
+
+    private PageLinks() {
+    }
+
+    /**
+     * Links to the previous and next pages of a range.
+     *
+     * @param path the path of the current page
+     * @param min the first number of the range
+     * @param max the last number of the range
+     * @param notation the notation of the range
+     * @param offset the offset of the current page
+     * @param limit the limit of the current page
+     * @param total the total size of the range
+     * @return List the Link header values, empty if there is only one page
+     */
+    static List<String> of(String path, int min, int max, Notation notation, int offset, int limit, long total) {
+        UriComponentsBuilder page = UriComponentsBuilder.fromPath(path)
+                .queryParam("min", min)
+                .queryParam("max", max);
+        if (notation != Notation.STANDARD) {
+            page.queryParam("notation", notation.name().toLowerCase(Locale.ROOT));
+        }
+        List<String> links = new ArrayList<>(2);
+        if (offset > 0) {
+            long previous = Math.max(Math.min(offset, total) - limit, 0);
+            links.add(link(page, previous, limit, "prev"));
+        }
+        if ((long) offset + limit < total) {
+            links.add(link(page, (long) offset + limit, limit, "next"));
+        }
+        return links;
+    }
+
+    private static String link(UriComponentsBuilder page, long offset, int limit, String rel) {
+        String uri = page.cloneBuilder()
+                .queryParam("offset", offset)
+                .queryParam("limit", limit)
+                .build()
+                .toUriString();
+        return "<" + uri + ">; rel=\"" + rel + "\"";
+    }
+
+}
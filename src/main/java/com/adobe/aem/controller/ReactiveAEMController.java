@@ -0,0 +1,308 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Calculation;
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.exception.ApiError;
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.service.RangeReloadedEvent;
+import com.adobe.aem.util.RequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * This is the non-blocking variant of AEMController, active when the application runs on Spring WebFlux and Reactor
+ * Netty with the reactive profile. It serves the same /romannumeral contract, ranges are paged the same way, and range
+ * responses are emitted as a Flux so that conversions are only produced as fast as the client reads them.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveAEMController {
+
+    // conversions are written in chunks instead of one buffer per conversion
+    private static final int CHUNK_SIZE = 256;
+
+    /**
+     * Configurable minimum value defined in application.properties, until the range is reloaded
+     */
+    @Value("${romannumeral.number.min:1}")
+    private int minRange;
+
+    /**
+     * Configurable maximum value defined in application.properties, until the range is reloaded
+     */
+    @Value("${romannumeral.number.max:3999}")
+    private int maxRange;
+
+    /**
+     * Configurable maximum value in the extended notations defined in application.properties
+     */
+    @Value("${romannumeral.extended.max:1000000000}")
+    private int extendedMaxRange;
+
+    /**
+     * Configurable maximum number of conversions in a page of a range defined in application.properties
+     */
+    @Value("${romannumeral.page.max-size:3999}")
+    private int maxPageSize;
+
+    @Autowired
+    private AEMService service;
+
+    @Autowired
+    private RequestValidator validator;
+
+    /**
+     * Range currently accepted, both limits are replaced at once when the range is reloaded
+     */
+    private volatile NumeralRange range;
+
+    @PostConstruct
+    void initRange() {
+        range = new NumeralRange(minRange, maxRange);
+    }
+
+    /**
+     * Switch to a reloaded range, requests already validated finish with the range they started with. The range is
+     * switched before the response cache is cleared, see RangeReloadedEvent.
+     *
+     * @param event the event with the reloaded range
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRangeReloaded(RangeReloadedEvent event) {
+        range = event.getRange();
+    }
+
+    /**
+     * GET call to convert a number to a Roman numeral.
+     *
+     * @param query the input number to be converted
+     * @param notation the notation of the Roman numeral, standard if not set
+     * @return Mono the JSON number input and Roman numeral output value
+     * @throws InvalidRequestException if it is on invalid request value
+     */
+    @GetMapping("/romannumeral")
+    public Mono<Numeral> convertToRomanNumeral(@RequestParam(value = "query", required = false) String query,
+                                               @RequestParam(value = "notation", required = false) String notation) {
+        log.debug("Received request to convert '{}' to a Roman numeral", query);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int limit = maxRange(accepted, style);
+        int number = validator.validate(query, accepted.getMin(), limit);
+        return Mono.just(new Numeral(query, service.convert(number, accepted.getMin(), limit, style)));
+    }
+
+    /**
+     * GET call to convert a page of a range of numbers to Roman numerals, paged the same as by AEMController. The
+     * total size of the range is returned in the X-Total-Count header, the previous and next pages are linked in the
+     * Link header. The page is emitted in chunks while converting.
+     *
+     * @param min the first number of the range
+     * @param max the last number of the range
+     * @param notation the notation of the Roman numerals, standard if not set
+     * @param offset the position of the first number of the page within the range, 0 if not set
+     * @param limit the maximum number of conversions in the page, the maximum page size if not set
+     * @param request the request, used to link the other pages
+     * @return ResponseEntity the JSON number inputs and Roman numeral output values of the page
+     * @throws InvalidRequestException if it is on invalid request value
+     */
+    @GetMapping(value = "/romannumeral", params = {"min", "max"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Flux<String>> convertToRomanNumerals(@RequestParam(value = "min") String min,
+                                                               @RequestParam(value = "max") String max,
+                                                               @RequestParam(value = "notation", required = false) String notation,
+                                                               @RequestParam(value = "offset", required = false) String offset,
+                                                               @RequestParam(value = "limit", required = false) String limit,
+                                                               ServerHttpRequest request) {
+        log.debug("Received request to convert Roman numeral from '{}' to '{}'", min, max);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int upper = maxRange(accepted, style);
+        int from = validator.validate(min, accepted.getMin(), upper);
+        int to = validator.validate(max, accepted.getMin(), upper);
+        int pageOffset = offset == null ? 0 : validator.validate("offset", offset, 0, Integer.MAX_VALUE);
+        int pageLimit = limit == null ? maxPageSize : validator.validate("limit", limit, 1, maxPageSize);
+
+        // a page never holds more than the maximum page size, whatever the size of the range
+        long total = Math.max((long) to - from + 1, 0);
+        long first = from + (long) pageOffset;
+        long last = Math.min(to, first + pageLimit - 1);
+        Flux<String> conversions = first <= last
+                ? toJson((int) first, (int) last, accepted.getMin(), upper, style)
+                : Flux.just("{\"conversions\":[]}");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header("X-Total-Count", String.valueOf(total));
+        List<String> links = PageLinks.of(request.getURI().getRawPath(), from, to, style, pageOffset, pageLimit, total);
+        if (!links.isEmpty()) {
+            response.header(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return response.body(conversions);
+    }
+
+    /**
+     * GET call to convert a range of numbers to Roman numerals. The JSON is the same as for AEMController, but it is
+     * emitted in chunks while converting, so extended ranges of any size are never held in memory.
+     *
+     * @param min the first number of the range
+     * @param max the last number of the range
+     * @param notation the notation of the Roman numerals, standard if not set
+     * @return Flux the JSON number inputs and Roman numeral output values
+     * @throws InvalidRequestException if it is on invalid request value
+     */
+    @GetMapping(value = "/romannumeral/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<String> streamRomanNumerals(@RequestParam(value = "min") String min,
+                                            @RequestParam(value = "max") String max,
+                                            @RequestParam(value = "notation", required = false) String notation) {
+        log.debug("Received request to stream Roman numeral from '{}' to '{}'", min, max);
+        Notation style = validator.validateNotation(notation);
+        NumeralRange accepted = range;
+        int upper = maxRange(accepted, style);
+        int from = validator.validate(min, accepted.getMin(), upper);
+        int to = validator.validate(max, accepted.getMin(), upper);
+        return toJson(from, to, accepted.getMin(), upper, style);
+    }
+
+    /**
+     * GET call to parse a Roman numeral to a number.
+     *
+     * @param query the input Roman numeral to be parsed
+     * @return Mono the JSON Roman numeral input and number output value
+     * @throws InvalidRequestException if it is on invalid request value
+     */
+    @GetMapping("/romannumeral/parse")
+    public Mono<Numeral> parseRomanNumeral(@RequestParam(value = "query") String query) {
+        log.debug("Received request to parse '{}' to a number", query);
+        NumeralRange accepted = range;
+        int number = service.parse(query.trim(), accepted.getMin(), accepted.getMax());
+        return Mono.just(new Numeral(query, String.valueOf(number)));
+    }
+
+    /**
+     * GET call to add two Roman numerals.
+     *
+     * @param first the Roman numeral added to
+     * @param second the Roman numeral added
+     * @return Mono both Roman numerals and their sum
+     * @throws InvalidRequestException if it is on invalid request value or the sum is not within range
+     */
+    @GetMapping("/romannumeral/add")
+    public Mono<Calculation> addRomanNumerals(@RequestParam(value = "first") String first,
+                                              @RequestParam(value = "second") String second) {
+        log.debug("Received request to add '{}' and '{}'", first, second);
+        NumeralRange accepted = range;
+        String augend = first.trim();
+        String addend = second.trim();
+        return Mono.just(new Calculation(augend, addend,
+                service.add(augend, addend, accepted.getMin(), accepted.getMax())));
+    }
+
+    /**
+     * GET call to subtract a Roman numeral from another.
+     *
+     * @param first the Roman numeral subtracted from
+     * @param second the Roman numeral subtracted
+     * @return Mono both Roman numerals and their difference
+     * @throws InvalidRequestException if it is on invalid request value or the difference is not within range
+     */
+    @GetMapping("/romannumeral/subtract")
+    public Mono<Calculation> subtractRomanNumerals(@RequestParam(value = "first") String first,
+                                                   @RequestParam(value = "second") String second) {
+        log.debug("Received request to subtract '{}' from '{}'", second, first);
+        NumeralRange accepted = range;
+        String minuend = first.trim();
+        String subtrahend = second.trim();
+        return Mono.just(new Calculation(minuend, subtrahend,
+                service.subtract(minuend, subtrahend, accepted.getMin(), accepted.getMax())));
+    }
+
+    /**
+     * GET call to compare two Roman numerals.
+     *
+     * @param first the first Roman numeral
+     * @param second the second Roman numeral
+     * @return Mono -1, 0 or 1 as the first is less than, equal to or greater than the second
+     * @throws InvalidRequestException if it is on invalid request value
+     */
+    @GetMapping(value = "/romannumeral/compare", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Integer> compareRomanNumerals(@RequestParam(value = "first") String first,
+                                              @RequestParam(value = "second") String second) {
+        log.debug("Received request to compare '{}' and '{}'", first, second);
+        NumeralRange accepted = range;
+        return Mono.just(service.compare(first.trim(), second.trim(), accepted.getMin(), accepted.getMax()));
+    }
+
+    /**
+     * Handling InvalidRequestException with the same error object as the RestExceptionHandler of the servlet stack.
+     *
+     * @param ex the exception object being handled
+     * @param exchange the request details
+     * @return ResponseEntity the error details of the request
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiError> handleInvalidRequest(InvalidRequestException ex, ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        log.debug("Bad request: {} - {}", path, ex.getMessage());
+        return ResponseEntity.badRequest().body(new ApiError(HttpStatus.BAD_REQUEST, ex.getMessage(), path));
+    }
+
+    /**
+     * Maximum number accepted in a notation, the extended notations go beyond the standard range.
+     *
+     * @param accepted the range accepted in the standard notation
+     * @param notation the requested notation
+     * @return int the maximum number accepted
+     */
+    private int maxRange(NumeralRange accepted, Notation notation) {
+        return notation == Notation.STANDARD ? accepted.getMax() : Math.max(accepted.getMax(), extendedMaxRange);
+    }
+
+    /**
+     * Emit the JSON conversions of a range in chunks, numbers are only converted as the chunks are requested.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param notation the notation of the Roman numerals
+     * @return Flux the JSON of the range, in chunks of CHUNK_SIZE conversions
+     */
+    private Flux<String> toJson(int from, int to, int min, int max, Notation notation) {
+        Flux<String> conversions = Flux.fromStream(() -> service.stream(from, to, min, max, notation))
+                .index((index, numeral) -> index == 0 ? toJson(numeral) : "," + toJson(numeral))
+                .buffer(CHUNK_SIZE)
+                .map(chunk -> String.join("", chunk));
+        return Flux.concat(Mono.just("{\"conversions\":["), conversions, Mono.just("]}"));
+    }
+
+    // inputs and outputs are digits, Roman numeral letters, parentheses and overlines, nothing to escape
+    private static String toJson(Numeral numeral) {
+        return "{\"input\":\"" + numeral.getInteger() + "\",\"output\":\"" + numeral.getRoman() + "\"}";
+    }
+
+}
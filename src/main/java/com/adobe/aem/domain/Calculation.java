@@ -0,0 +1,79 @@
+package com.adobe.aem.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Objects;
+
+/**
+ * This is the domain object to be returned in the response of a sum or difference of Roman numerals. It echoes both
+ * Roman numerals of the request next to the result, written as its Roman numeral and its number.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@JsonPropertyOrder({"first", "second", "output", "value"})
+public class Calculation {
+
+    @JsonProperty("first")
+    private final String first;
+    @JsonProperty("second")
+    private final String second;
+    @JsonIgnore
+    private final RomanNumeral result;
+
+    public Calculation(String first, String second, RomanNumeral result) {
+        this.first = first;
+        this.second = second;
+        this.result = result;
+    }
+
+    public String getFirst() {
+        return first;
+    }
+
+    public String getSecond() {
+        return second;
+    }
+
+    @JsonIgnore
+    public RomanNumeral getResult() {
+        return result;
+    }
+
+    @JsonProperty("output")
+    public String getOutput() {
+        return result.toString();
+    }
+
+    @JsonProperty("value")
+    public int getValue() {
+        return result.intValue();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Calculation)) {
+            return false;
+        }
+        Calculation calculation = (Calculation) o;
+        return Objects.equals(this.first, calculation.first) && Objects.equals(this.second, calculation.second)
+                && Objects.equals(this.result, calculation.result);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(first, second, result);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Calculation{first=\"%s\", second=\"%s\", result=\"%s\"}", this.first, this.second,
+                this.result);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.adobe.aem.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This is the domain object to be returned in the response of a range conversion.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class Conversions {
+
+    // the number of the first conversion, the inputs of a range are consecutive
+    @JsonIgnore
+    private final int start;
+    @JsonProperty("conversions")
+    private final List<Numeral> numerals;
+
+    public Conversions(int start, List<Numeral> numerals) {
+        this.start = start;
+        this.numerals = numerals;
+    }
+
+    @JsonIgnore
+    public int getStart() {
+        return start;
+    }
+
+    public List<Numeral> getConversions() {
+        return numerals;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Conversions)) {
+            return false;
+        }
+        Conversions conversions = (Conversions) o;
+        return this.start == conversions.start && Objects.equals(this.numerals, conversions.numerals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, numerals);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Conversions{start=%d, numerals=%s}", this.start, this.numerals);
+    }
+
+}
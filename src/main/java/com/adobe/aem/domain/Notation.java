@@ -0,0 +1,33 @@
+package com.adobe.aem.domain;
+
+/**
+ * This is the notation Roman numerals are written in. Standard notation only goes up to 3999, the extended notations
+ * write the thousands of larger numbers as a Roman numeral of their own, multiplied by 1000.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public enum Notation {
+
+    /**
+     * Standard notation, 4000 and above are written with repeated M
+     */
+    STANDARD,
+
+    /**
+     * Vinculum notation, thousands are marked with a combining overline (U+0305) after each letter, e.g. 5000 is V
+     * followed by an overline
+     */
+    VINCULUM,
+
+    /**
+     * Parenthesized notation, thousands are wrapped in parentheses, e.g. 5000 is (V)
+     */
+    PARENTHESES;
+
+    /**
+     * Combining overline drawn over the preceding letter in vinculum notation
+     */
+    public static final char OVERLINE = '\u0305';
+
+}
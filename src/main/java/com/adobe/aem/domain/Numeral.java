@@ -7,7 +7,8 @@ import net.minidev.json.JSONObject;
 import java.util.Objects;
 
 /**
- * This is the domain object to be returned in the response.
+ * This is the domain object to be returned in the response. It is immutable, so the instances of a NumeralTable are
+ * shared by every response.
  *
  * @author  Ankith Aiyar
  * @version 1.0
@@ -45,6 +46,11 @@ public class Numeral {
         return Objects.equals(this.integer, numeral.integer) && Objects.equals(this.roman, numeral.roman);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.integer, this.roman);
+    }
+
     @Override
     public String toString() {
         return String.format("Numeral{integer=\"%s\", roman=\"%s\"}", this.integer, this.roman);
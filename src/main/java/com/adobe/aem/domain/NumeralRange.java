@@ -0,0 +1,56 @@
+package com.adobe.aem.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * This is the domain object of the range of numbers accepted in the standard notation. It is immutable, so both limits
+ * are always read from the same range, also while the range is being reloaded.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class NumeralRange {
+
+    @JsonProperty("min")
+    private final int min;
+    @JsonProperty("max")
+    private final int max;
+
+    public NumeralRange(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NumeralRange)) {
+            return false;
+        }
+        NumeralRange range = (NumeralRange) o;
+        return this.min == range.min && this.max == range.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.min, this.max);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NumeralRange{min=%d, max=%d}", this.min, this.max);
+    }
+
+}
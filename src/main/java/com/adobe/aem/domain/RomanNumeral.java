@@ -0,0 +1,46 @@
+package com.adobe.aem.domain;
+
+/**
+ * This is the value object of a Roman numeral in the standard notation, used for arithmetic on Roman numerals.
+ * It holds the number as an int and the Roman numeral written by the NumeralTable, which keeps a shared instance for
+ * every number of the configured range next to its Numeral, so sums and differences are looked up without allocating
+ * and the Roman numeral of a number is only ever written once, by the same conversion as every other response.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class RomanNumeral implements Comparable<RomanNumeral> {
+
+    private final int value;
+    private final String roman;
+
+    public RomanNumeral(int value, String roman) {
+        this.value = value;
+        this.roman = roman;
+    }
+
+    public int intValue() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(RomanNumeral other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof RomanNumeral && value == ((RomanNumeral) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return roman;
+    }
+
+}
@@ -1,7 +1,8 @@
 package com.adobe.aem.exception;
 
 /**
- * This is the exception thrown when an invalid request comes in.
+ * This is the exception thrown when an invalid request comes in. Invalid requests are expected input, so the exception
+ * does not capture a stack trace.
  *
  * @author  Ankith Aiyar
  * @version 1.0
@@ -9,7 +10,7 @@ package com.adobe.aem.exception;
 public class InvalidRequestException extends RuntimeException {
 
     public InvalidRequestException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
 }
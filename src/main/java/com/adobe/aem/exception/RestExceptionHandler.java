@@ -1,11 +1,14 @@
 package com.adobe.aem.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -17,11 +20,12 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
  * @version 1.0
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     /**
-     * Overriding HttpRequestMethodNotSupportedException with a custom error object. Only GET is supported, everything
+     * Overriding HttpRequestMethodNotSupportedException with a custom error object. Only GET is supported (POST for batches), everything
      * else will throw this exception.
      *
      * @param ex the exception object being handled
@@ -35,7 +39,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         log.error(String.format("Unsupported method: %s - %s", ex.getMethod(), request.getDescription(true)));
         String path = request.getDescription(false).substring(4);
         ApiError apiError = new ApiError(HttpStatus.METHOD_NOT_ALLOWED, "Unsupported method", path);
-        return new ResponseEntity(apiError, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity(apiError, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -52,7 +56,53 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         log.error(String.format("Bad request: %s - %s parameter is missing", request.getDescription(true), ex.getParameterName()));
         String path = request.getDescription(false).substring(4);
         ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST, "Required parameter is missing", path);
-        return new ResponseEntity(apiError, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity(apiError, jsonHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handling InvalidRequestException with a custom error object when a request value did not pass validation.
+     *
+     * @param ex the exception object being handled
+     * @param request the request details
+     * @return ResponseEntity the error details of the request
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    protected ResponseEntity<Object> handleInvalidRequest(InvalidRequestException ex, WebRequest request) {
+        // expected under load from bad clients, failures are counted by reason in the validation metrics
+        log.debug("Bad request: {} - {}", request.getDescription(false), ex.getMessage());
+        String path = request.getDescription(false).substring(4);
+        ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST, ex.getMessage(), path);
+        return new ResponseEntity(apiError, jsonHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handling TooManyRequestsException with a custom error object when a client exceeded its request rate, telling it
+     * when to retry.
+     *
+     * @param ex the exception object being handled
+     * @param request the request details
+     * @return ResponseEntity the error details of the request
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    protected ResponseEntity<Object> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        // expected under load, rejections are counted in the rate limit metrics
+        log.debug("Too many requests: {} - retry after {}s", request.getDescription(true), ex.getRetryAfterSeconds());
+        String path = request.getDescription(false).substring(4);
+        ApiError apiError = new ApiError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), path);
+        HttpHeaders headers = jsonHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity(apiError, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Errors are always written as JSON, also when the client only accepts a binary conversion response.
+     *
+     * @return HttpHeaders the headers of an error response
+     */
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
     }
 
 }
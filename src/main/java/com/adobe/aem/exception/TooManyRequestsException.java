@@ -0,0 +1,23 @@
+package com.adobe.aem.exception;
+
+/**
+ * This is the exception thrown when a client exceeds its request rate. Rejections are expected under load, so the
+ * exception does not capture a stack trace.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.adobe.aem.export;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.service.NumeralTable;
+import com.adobe.aem.util.RequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * This is the command line export of the export profile, which runs the application without a web server. It writes
+ * the conversions of romannumeral.export.from to romannumeral.export.to in romannumeral.export.notation to the file
+ * romannumeral.export.file and reports the throughput, then the application exits.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@Profile("export")
+@Slf4j
+public class ExportRunner implements ApplicationRunner {
+
+    private final AEMService service;
+    private final RequestValidator validator;
+    private final int from;
+    private final int to;
+    private final String notation;
+    private final String file;
+    private final int chunkSize;
+    private final int extendedMax;
+
+    public ExportRunner(AEMService service,
+                        RequestValidator validator,
+                        @Value("${romannumeral.export.from:1}") int from,
+                        @Value("${romannumeral.export.to:3999}") int to,
+                        @Value("${romannumeral.export.notation:standard}") String notation,
+                        @Value("${romannumeral.export.file:numerals.csv}") String file,
+                        @Value("${romannumeral.export.chunk-size:262144}") int chunkSize,
+                        @Value("${romannumeral.extended.max:1000000000}") int extendedMax) {
+        this.service = service;
+        this.validator = validator;
+        this.from = from;
+        this.to = to;
+        this.notation = notation;
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.extendedMax = extendedMax;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Notation style = validator.validateNotation(notation);
+        int max = style == Notation.STANDARD ? NumeralTable.STANDARD_MAX : extendedMax;
+        if (from < 1 || to > max || from > to) {
+            throw new IllegalArgumentException(String.format(
+                    "Export range must be within 1-%d in the %s notation, found %d-%d", max, notation, from, to));
+        }
+        Path path = Paths.get(file).toAbsolutePath();
+        log.info("Exporting {}-{} in the {} notation to {} with {} threads", from, to, style.name().toLowerCase(Locale.ROOT),
+                path, Runtime.getRuntime().availableProcessors());
+        NumeralFileWriter.Result result = new NumeralFileWriter(service, chunkSize).write(from, to, style, path);
+        log.info("Exported {}, lines of {} bytes", result, result.getLineWidth());
+    }
+
+}
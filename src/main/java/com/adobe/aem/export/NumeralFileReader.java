@@ -0,0 +1,149 @@
+package com.adobe.aem.export;
+
+import com.adobe.aem.domain.Numeral;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This is the reader of the export file written by NumeralFileWriter. The file is memory-mapped, so entries are read
+ * from the page cache on demand and never loaded into the heap as a whole. As every line has the same width, entry N
+ * is at N times the width, and the number of the first line gives the entry of any number.
+ * Files larger than a single mapping are mapped in segments of whole lines.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class NumeralFileReader {
+
+    // a single mapping is limited to 2 GB
+    private static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final long linesPerSegment;
+    private final int lineWidth;
+    private final long count;
+    private final int first;
+
+    private NumeralFileReader(MappedByteBuffer[] segments, long linesPerSegment, int lineWidth, long count, int first) {
+        this.segments = segments;
+        this.linesPerSegment = linesPerSegment;
+        this.lineWidth = lineWidth;
+        this.count = count;
+        this.first = first;
+    }
+
+    public static NumeralFileReader open(Path file) throws IOException {
+        return open(file, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Map an export file for reading.
+     *
+     * @param file the file written by NumeralFileWriter
+     * @param segmentBytes the maximum size of a single mapping
+     * @return NumeralFileReader the reader of the file
+     * @throws IOException if the file cannot be read or is not an export file
+     */
+    static NumeralFileReader open(Path file, long segmentBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // the first line gives the width of every line and the number the file starts from
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, 64 * 1024));
+            channel.read(head, 0);
+            int lineWidth = -1;
+            for (int i = 0; i < head.position(); i++) {
+                if (head.get(i) == '\n') {
+                    lineWidth = i + 1;
+                    break;
+                }
+            }
+            if (lineWidth < 0 || size % lineWidth != 0) {
+                throw new IOException("Not an export file of fixed-width lines: " + file);
+            }
+            int first = Integer.parseInt(field(head, 0, lineWidth, true));
+            long count = size / lineWidth;
+
+            long linesPerSegment = Math.max(segmentBytes / lineWidth, 1);
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((count + linesPerSegment - 1) / linesPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = i * linesPerSegment * lineWidth;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(linesPerSegment * lineWidth,
+                        size - offset));
+            }
+            // the mappings stay valid once the channel is closed
+            return new NumeralFileReader(segments, linesPerSegment, lineWidth, count, first);
+        }
+    }
+
+    /**
+     * Read entry N of the file.
+     *
+     * @param index the position of the entry, from 0
+     * @return Numeral the conversion of the entry
+     * @throws IndexOutOfBoundsException if the file has no such entry
+     */
+    public Numeral get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Entry " + index + " is not within 0-" + (count - 1));
+        }
+        // only absolute reads, so the shared mappings can be read from any number of threads
+        ByteBuffer segment = segments[(int) (index / linesPerSegment)];
+        int offset = (int) (index % linesPerSegment) * lineWidth;
+        return new Numeral(field(segment, offset, lineWidth, true), field(segment, offset, lineWidth, false));
+    }
+
+    /**
+     * Read the conversion of a number.
+     *
+     * @param number the number to look up
+     * @return Numeral the conversion of the number, or null if the number is not in the file
+     */
+    public Numeral find(int number) {
+        long index = (long) number - first;
+        return index < 0 || index >= count ? null : get(index);
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * Read the number or the Roman numeral of a line, without the padding.
+     *
+     * @param buffer the buffer holding the line
+     * @param offset the position of the line in the buffer
+     * @param lineWidth the width of the line, with its newline
+     * @param number whether the number before the comma is read, otherwise the Roman numeral after it
+     * @return String the field of the line
+     */
+    private static String field(ByteBuffer buffer, int offset, int lineWidth, boolean number) {
+        int comma = offset;
+        while (buffer.get(comma) != ',') {
+            comma++;
+        }
+        int start = number ? offset : comma + 1;
+        int end = number ? comma : offset + lineWidth - 1;
+        while (start < end && buffer.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
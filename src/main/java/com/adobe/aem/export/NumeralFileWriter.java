@@ -0,0 +1,261 @@
+package com.adobe.aem.export;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.service.AEMService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * This is the writer of the export file, a fixed-width CSV file with one conversion per line:
+ * the number right-aligned, a comma, the Roman numeral in UTF-8 left-aligned and padded with spaces, and a newline.
+ * Every line has the same length, so line N holds the number of the first line plus N and is found without an index,
+ * see NumeralFileReader. The width of the lines is computed from the decimal places of the range rather than from its
+ * conversions, so the range is only converted once, split into chunks converted with AEMService and written in
+ * parallel, every chunk through its own memory mapping of the file.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class NumeralFileWriter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 18;
+
+    // letters of each digit of a decimal place, e.g. 3 letters for 7 (VII) and 2 for 9 (IX)
+    private static final int[] DIGIT_LETTERS = {0, 1, 2, 3, 2, 1, 2, 3, 4, 2};
+    // letters of 888 (DCCCLXXXVIII), the most of the hundreds, tens and ones places
+    private static final int MAX_PLACE_LETTERS = 12;
+
+    private final AEMService service;
+    private final int chunkSize;
+
+    public NumeralFileWriter(AEMService service) {
+        this(service, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a writer converting with the given service.
+     *
+     * @param service the service the numbers are converted with
+     * @param chunkSize the number of conversions written by one task through one mapping
+     */
+    public NumeralFileWriter(AEMService service, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.service = service;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Write the conversions of every number between from and to to a file, replacing it if it exists.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param notation the notation the Roman numerals are written in
+     * @param file the file to write
+     * @return Result the size of the file and the time it took
+     * @throws IOException if the file cannot be written
+     */
+    public Result write(int from, int to, Notation notation, Path file) throws IOException {
+        if (from < 1 || from > to) {
+            throw new IllegalArgumentException(String.format("Range must be positive and not empty, found %d-%d", from, to));
+        }
+        long startTimer = System.nanoTime();
+        long count = (long) to - from + 1;
+        long chunks = (count + chunkSize - 1) / chunkSize;
+
+        // the widest numeral of the range sets the width of every line
+        int romanWidth = maxRomanBytes(from, to, notation);
+        int numberWidth = String.valueOf(to).length();
+        int lineWidth = numberWidth + 1 + romanWidth + 1;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            LongStream.range(0, chunks).parallel().forEach(chunk -> {
+                int chunkFrom = chunkFrom(from, chunk);
+                int chunkTo = chunkTo(from, to, chunk);
+                long offset = ((long) chunkFrom - from) * lineWidth;
+                long length = ((long) chunkTo - chunkFrom + 1) * lineWidth;
+                try {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, length);
+                    service.stream(chunkFrom, chunkTo, chunkFrom, chunkTo, notation)
+                            .forEach(numeral -> putLine(buffer, numeral, numberWidth, romanWidth));
+                    buffer.force();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Result(count, count * lineWidth, lineWidth, System.nanoTime() - startTimer);
+    }
+
+    private int chunkFrom(int from, long chunk) {
+        return (int) (from + chunk * chunkSize);
+    }
+
+    private int chunkTo(int from, int to, long chunk) {
+        return (int) Math.min(to, from + (chunk + 1) * chunkSize - 1);
+    }
+
+    /**
+     * Size in UTF-8 of the widest Roman numeral between from and to, computed from the decimal places of the range.
+     * Letters and parentheses take one byte and the combining overline two, so the size is a weighted count of the
+     * letters and the marks, overlines or parentheses, of a numeral.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param notation the notation the Roman numerals are written in
+     * @return int the number of bytes of the widest Roman numeral
+     */
+    static int maxRomanBytes(int from, int to, Notation notation) {
+        return (int) maxWeight(from, to, notation, 1, notation == Notation.VINCULUM ? 2 : 1);
+    }
+
+    /**
+     * Largest weighted count of letters and marks of the Roman numerals between from and to. A numeral is the numeral
+     * of its thousands followed by the letters of its hundreds, tens and ones, so the range is split by thousands: the
+     * first and last thousands may be partial, the ones in between cover every hundreds, tens and ones.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param notation the notation the Roman numerals are written in
+     * @param letterWeight the weight of a letter
+     * @param markWeight the weight of an overline or parenthesis
+     * @return long the largest weighted count
+     */
+    private static long maxWeight(long from, long to, Notation notation, long letterWeight, long markWeight) {
+        long first = from / 1000;
+        long last = to / 1000;
+        if (first == last) {
+            return maxThousandsWeight(first, first, notation, letterWeight, markWeight)
+                    + letterWeight * maxPlaceLetters(from % 1000, to % 1000);
+        }
+        long max = Math.max(
+                maxThousandsWeight(first, first, notation, letterWeight, markWeight)
+                        + letterWeight * maxPlaceLetters(from % 1000, 999),
+                maxThousandsWeight(last, last, notation, letterWeight, markWeight)
+                        + letterWeight * maxPlaceLetters(0, to % 1000));
+        if (first + 1 < last) {
+            max = Math.max(max, maxThousandsWeight(first + 1, last - 1, notation, letterWeight, markWeight)
+                    + letterWeight * MAX_PLACE_LETTERS);
+        }
+        return max;
+    }
+
+    private static long maxThousandsWeight(long first, long last, Notation notation, long letterWeight,
+                                           long markWeight) {
+        // thousands are written as Ms in the standard notation and up to 3999 in every notation
+        if (notation == Notation.STANDARD || last <= 3) {
+            return letterWeight * last;
+        }
+        long max = first <= 3 ? letterWeight * 3 : 0;
+        long from = Math.max(first, 4);
+        if (notation == Notation.VINCULUM) {
+            // every letter of the numeral of the thousands gets an overline, the overlines it has are kept
+            return Math.max(max, maxWeight(from, last, notation, letterWeight + markWeight, markWeight));
+        }
+        // the numeral of the thousands is wrapped in a pair of parentheses
+        return Math.max(max, maxWeight(from, last, notation, letterWeight, markWeight) + 2 * markWeight);
+    }
+
+    private static int maxPlaceLetters(long from, long to) {
+        int max = 0;
+        for (int number = (int) from; number <= to; number++) {
+            max = Math.max(max, DIGIT_LETTERS[number / 100] + DIGIT_LETTERS[number / 10 % 10]
+                    + DIGIT_LETTERS[number % 10]);
+        }
+        return max;
+    }
+
+    private static void putLine(MappedByteBuffer buffer, Numeral numeral, int numberWidth, int romanWidth) {
+        String number = numeral.getInteger();
+        for (int i = number.length(); i < numberWidth; i++) {
+            buffer.put((byte) ' ');
+        }
+        putUtf8(buffer, number);
+        buffer.put((byte) ',');
+        int written = putUtf8(buffer, numeral.getRoman());
+        for (int i = written; i < romanWidth; i++) {
+            buffer.put((byte) ' ');
+        }
+        buffer.put((byte) '\n');
+    }
+
+    // Roman numerals are Latin letters, parentheses and the combining overline, none of them outside the BMP
+    private static int putUtf8(MappedByteBuffer buffer, String value) {
+        int written = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+                written += 1;
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+                written += 2;
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+                written += 3;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * This is the outcome of an export, with the throughput it was written at.
+     */
+    public static final class Result {
+
+        private final long count;
+        private final long bytes;
+        private final int lineWidth;
+        private final long nanos;
+
+        Result(long count, long bytes, int lineWidth, long nanos) {
+            this.count = count;
+            this.bytes = bytes;
+            this.lineWidth = lineWidth;
+            this.nanos = nanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getLineWidth() {
+            return lineWidth;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getGigabytesPerSecond() {
+            return bytes / (double) nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d conversions, %d bytes in %d ms, %.3f GB/s", count, bytes,
+                    TimeUnit.NANOSECONDS.toMillis(nanos), getGigabytesPerSecond());
+        }
+
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.adobe.aem.ratelimit;
+
+import com.adobe.aem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the interceptor that limits the request rate of each client before a request reaches AEMController.
+ * Requests take tokens from the bucket of the client in a TokenBucketLimiter, a single conversion costs one token and
+ * a range costs one token per romannumeral.ratelimit.range-numbers-per-token numbers it converts. Requests without
+ * enough tokens are rejected with a TooManyRequestsException, answered with 429 and Retry-After by the
+ * RestExceptionHandler. Responses served from the response cache do not reach the interceptor and are not limited,
+ * requests sharing the response of an identical concurrent request pay their cost through tryAdmit.
+ * It is off unless romannumeral.ratelimit.enabled is set. Clients are identified by their remote address, which is the
+ * address of the proxy behind a load balancer or CDN unless server.forward-headers-strategy is set, or by the header
+ * set in romannumeral.ratelimit.key-header.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(value = "romannumeral.ratelimit.enabled")
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final TokenBucketLimiter limiter;
+    private final int burst;
+    private final int numbersPerToken;
+    private final int maxPageSize;
+    private final String keyHeader;
+    private final Map<String, Counter> allowed = new HashMap<>();
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    /**
+     * Create the limiter, publishing its metrics to the global registry which Spring Boot connects to the actuator
+     * registries.
+     *
+     * @param tokensPerSecond the configured rate tokens are refilled at for each client
+     * @param burst the configured capacity of the bucket of each client
+     * @param stripes the configured number of buckets clients are hashed onto
+     * @param numbersPerToken the configured number of range conversions a token pays for
+     * @param maxPageSize the configured maximum number of conversions in a page of a range
+     * @param keyHeader the configured header identifying clients, the remote address is used if empty
+     */
+    @Autowired
+    public RateLimitInterceptor(@Value("${romannumeral.ratelimit.tokens-per-second:100}") double tokensPerSecond,
+                                @Value("${romannumeral.ratelimit.burst:200}") int burst,
+                                @Value("${romannumeral.ratelimit.stripes:4096}") int stripes,
+                                @Value("${romannumeral.ratelimit.range-numbers-per-token:100}") int numbersPerToken,
+                                @Value("${romannumeral.page.max-size:3999}") int maxPageSize,
+                                @Value("${romannumeral.ratelimit.key-header:}") String keyHeader) {
+        this(new TokenBucketLimiter(tokensPerSecond, burst, stripes), burst, numbersPerToken, maxPageSize, keyHeader,
+                Metrics.globalRegistry);
+    }
+
+    /**
+     * Create the interceptor for a limiter.
+     *
+     * @param limiter the limiter requests take tokens from
+     * @param burst the capacity of the buckets of the limiter
+     * @param numbersPerToken the number of range conversions a token pays for
+     * @param maxPageSize the maximum number of conversions in a page of a range
+     * @param keyHeader the header identifying clients, the remote address is used if empty
+     * @param registry the registry limiter metrics are published to
+     */
+    public RateLimitInterceptor(TokenBucketLimiter limiter, int burst, int numbersPerToken, int maxPageSize,
+                                String keyHeader, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.burst = burst;
+        this.numbersPerToken = Math.max(numbersPerToken, 1);
+        this.maxPageSize = maxPageSize;
+        this.keyHeader = keyHeader;
+        for (String type : new String[]{"single", "range", "stream", "batch"}) {
+            allowed.put(type, registry.counter("romannumeral.ratelimit.requests", "type", type, "result", "allowed"));
+            rejected.put(type, registry.counter("romannumeral.ratelimit.requests", "type", type, "result", "rejected"));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/romannumeral", "/romannumeral/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // streamed responses are dispatched a second time once written, they were admitted already
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String type = requestType(request);
+        long waitNanos = acquire(request, type);
+        if (waitNanos > 0) {
+            rejected.get(type).increment();
+            // whole seconds, rounded up so that the client does not retry too early
+            long retryAfter = Math.max(TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L), 1);
+            throw new TooManyRequestsException("Too many requests", retryAfter);
+        }
+        return true;
+    }
+
+    /**
+     * Take the tokens a request costs without rejecting it, for requests that share the response of an identical
+     * concurrent request instead of reaching the controller. A request without enough tokens is not counted, it is
+     * expected to go on to the controller and be rejected by preHandle.
+     *
+     * @param request the request being admitted
+     * @return boolean true if the client had enough tokens, which have been taken
+     */
+    public boolean tryAdmit(HttpServletRequest request) {
+        return acquire(request, requestType(request)) == 0;
+    }
+
+    private long acquire(HttpServletRequest request, String type) {
+        int cost = cost(request, type);
+        String key = clientKey(request);
+        long waitNanos = limiter.tryAcquire(key, cost);
+        if (waitNanos > 0) {
+            log.debug("Rejected {} request of '{}' costing {} tokens", type, key, cost);
+            return waitNanos;
+        }
+        allowed.get(type).increment();
+        return 0;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (!keyHeader.isEmpty()) {
+            String key = request.getHeader(keyHeader);
+            if (key != null && !key.isEmpty()) {
+                return key;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String requestType(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/romannumeral/stream")) {
+            return "stream";
+        }
+        if (path.equals("/romannumeral/batch")) {
+            return "batch";
+        }
+        if (path.equals("/romannumeral") && request.getParameter("min") != null && request.getParameter("max") != null) {
+            return "range";
+        }
+        return "single";
+    }
+
+    /**
+     * Tokens a request costs. Ranges are sized from their parameters without validating them, invalid ranges are
+     * rejected by the controller anyway. A batch is sized from its length, every item takes at least two bytes, and
+     * costs a full bucket if its length is unknown.
+     *
+     * @param request the request being admitted
+     * @param type the type of the request
+     * @return int the number of tokens
+     */
+    private int cost(HttpServletRequest request, String type) {
+        switch (type) {
+            case "batch":
+                long length = request.getContentLengthLong();
+                return length < 0 ? burst : tokens((length + 1) / 2);
+            case "range":
+                long total = parse(request.getParameter("max"), 0) - parse(request.getParameter("min"), 0) + 1;
+                long limit = Math.min(parse(request.getParameter("limit"), maxPageSize), maxPageSize);
+                return tokens(Math.min(total - parse(request.getParameter("offset"), 0), limit));
+            case "stream":
+                return tokens(parse(request.getParameter("max"), 0) - parse(request.getParameter("min"), 0) + 1);
+            default:
+                return 1;
+        }
+    }
+
+    private int tokens(long numbers) {
+        return (int) Math.min(Math.max(1, (numbers + numbersPerToken - 1) / numbersPerToken), burst);
+    }
+
+    /**
+     * Parse a parameter in a single pass without throwing, like RequestValidator. Values that are not digits are left
+     * to the controller to reject, values beyond the int range are not accumulated further.
+     *
+     * @param value the parameter, may be null
+     * @param defaultValue the value of a missing parameter or one that is not digits
+     * @return long the value of the parameter
+     */
+    private static long parse(String value, long defaultValue) {
+        int start = 0;
+        int end = value == null ? 0 : value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return defaultValue;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return defaultValue;
+            }
+            if (number <= Integer.MAX_VALUE) {
+                number = number * 10 + (c - '0');
+            }
+        }
+        return number;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.adobe.aem.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is the lock-free token bucket limiter of request rates per client. Each bucket is kept as a single long, the
+ * theoretical arrival time of the generic cell rate algorithm (GCRA), and updated with compare-and-set. Clients are
+ * hashed onto a fixed number of stripes, so memory is bounded whatever the number of clients, at the price of clients
+ * sharing a stripe also sharing their bucket.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class TokenBucketLimiter {
+
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final long nanosPerToken;
+    private final long burst;
+    private final long tolerance;
+    // arrival times are relative to the creation of the limiter, so they are never negative and 0 is a full bucket
+    private final long origin;
+
+    /**
+     * Create a limiter with full buckets.
+     *
+     * @param tokensPerSecond the rate tokens are refilled at
+     * @param burst the capacity of a bucket
+     * @param stripes the number of buckets, rounded up to a power of two
+     */
+    public TokenBucketLimiter(double tokensPerSecond, int burst, int stripes) {
+        if (tokensPerSecond <= 0 || burst < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Rate, burst and stripes must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.arrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.nanosPerToken = Math.max((long) (1_000_000_000L / tokensPerSecond), 1);
+        this.burst = burst;
+        this.tolerance = nanosPerToken * burst;
+        this.origin = System.nanoTime();
+    }
+
+    /**
+     * Take tokens from the bucket of a client. Costs above the capacity of a bucket are capped to it, so every request
+     * can eventually be admitted.
+     *
+     * @param key the client key
+     * @param cost the number of tokens the request costs
+     * @return long 0 if the tokens were taken, otherwise the nanoseconds until they are available
+     */
+    public long tryAcquire(String key, int cost) {
+        return tryAcquire(key, cost, System.nanoTime() - origin);
+    }
+
+    long tryAcquire(String key, int cost, long now) {
+        int stripe = stripe(key);
+        long increment = nanosPerToken * Math.min(Math.max(cost, 1), burst);
+        while (true) {
+            long arrival = arrivals.get(stripe);
+            long next = Math.max(arrival, now) + increment;
+            long allowedAt = next - tolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrivals.compareAndSet(stripe, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int stripe(String key) {
+        // spread the hash so keys differing only in the high bits do not share a stripe
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+}
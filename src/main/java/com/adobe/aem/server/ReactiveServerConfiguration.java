@@ -0,0 +1,37 @@
+package com.adobe.aem.server;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * This is the web server of the reactive profile. Tomcat stays on the classpath for the servlet stack, and Spring Boot
+ * prefers it over Netty for reactive applications too, so Reactor Netty is declared here explicitly. Reactor Netty is
+ * only packaged with the reactive Maven profile, mvn -P reactive package.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfiguration {
+
+    private static final String REACTOR_NETTY_SERVER = "reactor.netty.http.server.HttpServer";
+
+    /**
+     * Serve the reactive application on Reactor Netty instead of Tomcat.
+     *
+     * @return NettyReactiveWebServerFactory the factory of the Netty server, customized from the server properties
+     * @throws IllegalStateException if Reactor Netty is not on the classpath
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        if (!ClassUtils.isPresent(REACTOR_NETTY_SERVER, getClass().getClassLoader())) {
+            throw new IllegalStateException("The reactive profile runs on Reactor Netty, package with: mvn -P reactive package");
+        }
+        return new NettyReactiveWebServerFactory();
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.adobe.aem.server;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is the customizer of the executor Tomcat runs requests on, selected with romannumeral.executor.mode:
+ * default keeps the pool of Tomcat, sized by server.tomcat.max-threads.
+ * bounded runs requests on a fixed pool of romannumeral.executor.threads threads (twice the number of cores if 0) with
+ * a queue of romannumeral.executor.queue-capacity requests. Requests that do not fit are rejected and their connection
+ * is closed, instead of waiting on an ever growing backlog.
+ * virtual runs every request on its own virtual thread, which needs Java 21 or later at runtime. It is rejected as a
+ * configuration error on older runtimes, before the server is created.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class RequestExecutorCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+    public static final String EXECUTOR_NAME = "http-requests";
+
+    public enum Mode {
+        DEFAULT, BOUNDED, VIRTUAL
+    }
+
+    private final Mode mode;
+    private final int threads;
+    private final int queueCapacity;
+    private final MeterRegistry registry;
+    private ExecutorService executor;
+
+    /**
+     * Create the customizer, publishing the metrics of the executor to the global registry which Spring Boot connects
+     * to the actuator registries.
+     *
+     * @param mode the configured mode, one of default, bounded and virtual
+     * @param threads the configured number of threads of the bounded pool, twice the number of cores if 0
+     * @param queueCapacity the configured number of requests waiting for a thread of the bounded pool
+     */
+    @Autowired
+    public RequestExecutorCustomizer(@Value("${romannumeral.executor.mode:default}") String mode,
+                                     @Value("${romannumeral.executor.threads:0}") int threads,
+                                     @Value("${romannumeral.executor.queue-capacity:1000}") int queueCapacity) {
+        this(parseMode(mode), threads, queueCapacity, Metrics.globalRegistry);
+    }
+
+    public RequestExecutorCustomizer(Mode mode, int threads, int queueCapacity, MeterRegistry registry) {
+        if (threads < 0 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Executor threads must not be negative and queue capacity must be positive");
+        }
+        if (mode == Mode.VIRTUAL && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("romannumeral.executor.mode=virtual needs Java 21 or later, running on "
+                    + Runtime.version());
+        }
+        this.mode = mode;
+        this.threads = threads == 0 ? Runtime.getRuntime().availableProcessors() * 2 : threads;
+        this.queueCapacity = queueCapacity;
+        this.registry = registry;
+    }
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (mode == Mode.DEFAULT) {
+            return;
+        }
+        executor = createExecutor();
+        protocolHandler.setExecutor(executor);
+        log.info("Handling requests on the {} executor", mode.name().toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            // requests already running are finished, Tomcat closes the connections afterwards
+            executor.shutdown();
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    ExecutorService createExecutor() {
+        if (mode == Mode.VIRTUAL) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        Counter rejected = Counter.builder("romannumeral.executor.rejected")
+                .description("Requests rejected because every thread was busy and the queue was full")
+                .tag("name", EXECUTOR_NAME)
+                .register(registry);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("http-exec-"), (task, executor) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Request queue of " + queueCapacity + " is full");
+                });
+        new ExecutorServiceMetrics(pool, EXECUTOR_NAME, Collections.emptyList()).bindTo(registry);
+        return pool;
+    }
+
+    static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("romannumeral.executor.mode must be one of default, bounded, virtual", e);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        // looked up at runtime, so the application still builds for and runs on Java 11 in the other modes
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the virtual thread executor", e);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -1,16 +1,46 @@
 package com.adobe.aem.service;
 
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Notation;
 import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.trace.ConversionEvent;
+import com.adobe.aem.trace.Tracing;
+import com.adobe.aem.util.RequestValidator;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import net.minidev.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * This is the service class that handles the business logic of conversion from number to Roman numeral.
- * Range is currently set to 1-3999.
+ * Range is currently set to 1-3999. Conversions are served from a NumeralTable built for the configured range, which
+ * is rebuilt in the background and swapped in when the range is reloaded.
+ * Larger numbers can be written in vinculum or parenthesized notation, see Notation.
  *
  * @author  Ankith Aiyar
  * @version 1.0
@@ -22,63 +52,610 @@ public class AEMService {
     // only defined values up to 1000 given the upper limit of 3999
     private static final int[] integers = {1, 4, 5, 9, 10, 40, 50, 90, 100, 400, 500, 900, 1000};
     private static final String[] romanNumerals = {"I", "IV", "V", "IX", "X", "XL", "L", "XC", "C", "CD", "D", "CM", "M"};
+    // one, five and ten letters of the hundreds, tens and ones places
+    private static final char[][] places = {{'C', 'D', 'M'}, {'X', 'L', 'C'}, {'I', 'V', 'X'}};
+
+    // parsers and generators must not close the request and response streams, the servlet container owns them
+    private static final JsonFactory jsonFactory = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // tables of reloaded ranges are built on their own thread, away from the request threads
+    private static final Executor RELOAD_EXECUTOR = task -> {
+        Thread thread = new Thread(task, "numeral-table-reload");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    // ranges with at least this many numbers beyond the table are converted on the common fork-join pool
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    // rebuilt tables replace the current one with a single write, requests read whichever table is current
+    private volatile NumeralTable table;
+    private final int parallelThreshold;
+    private final RequestValidator validator;
+
+    private final Timer singleTimer;
+    private final Timer rangeTimer;
+    private final Timer streamTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary rangeSizes;
+    private final DistributionSummary streamSizes;
+    private final DistributionSummary batchSizes;
+    private final Counter romanFailures;
+    private final Counter rangeFailures;
+
+    public AEMService() {
+        this(1, NumeralTable.STANDARD_MAX);
+    }
+
+    public AEMService(int min, int max) {
+        this(min, max, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public AEMService(int min, int max, int parallelThreshold) {
+        this(min, max, parallelThreshold, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Build the lookup table for the configured range.
+     *
+     * @param min the configured minimum value defined in application.properties
+     * @param max the configured maximum value defined in application.properties
+     * @param parallelThreshold the configured number of numbers beyond the table from which ranges are converted in
+     * parallel
+     * @param registry the registry conversion and validation metrics are published to
+     */
+    @Autowired
+    public AEMService(@Value("${romannumeral.number.min:1}") int min,
+                      @Value("${romannumeral.number.max:3999}") int max,
+                      @Value("${romannumeral.parallel.threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}") int parallelThreshold,
+                      MeterRegistry registry) {
+        this.table = NumeralTable.build(min, max);
+        this.parallelThreshold = parallelThreshold;
+        this.singleTimer = conversionTimer(registry, "single");
+        this.rangeTimer = conversionTimer(registry, "range");
+        this.streamTimer = conversionTimer(registry, "stream");
+        this.batchTimer = conversionTimer(registry, "batch");
+        this.rangeSizes = rangeSize(registry, "range");
+        this.streamSizes = rangeSize(registry, "stream");
+        this.batchSizes = rangeSize(registry, "batch");
+        this.validator = new RequestValidator(registry);
+        this.romanFailures = registry.counter(RequestValidator.VALIDATION_FAILURES, "reason", "not_roman");
+        this.rangeFailures = registry.counter(RequestValidator.VALIDATION_FAILURES, "reason", "out_of_range");
+    }
+
+    /**
+     * Rebuild the lookup table for a new range in the background. Requests keep using the current table while the new
+     * one is built, and switch to it at once when it is complete. Reloads are expected to be serialized by the caller.
+     *
+     * @param min the new minimum number accepted
+     * @param max the new maximum number accepted
+     * @return CompletableFuture the new table, complete once it is in use
+     */
+    public CompletableFuture<NumeralTable> reload(int min, int max) {
+        return CompletableFuture.supplyAsync(() -> NumeralTable.build(min, max), RELOAD_EXECUTOR)
+                .thenApply(next -> {
+                    table = next;
+                    return next;
+                });
+    }
+
+    public NumeralTable getTable() {
+        return table;
+    }
 
     /**
      * Convert a number into a Roman numeral.
      *
-     * @param integer the input number to be converted
+     * @param number the input number to be converted
      * @param min the minimum number accepted
      * @param max the maximum number accepted
      * @return String the Roman numeral value
      */
-    public String convert(String integer, int min, int max) {
-        long startTimer = System.currentTimeMillis();
-        StringBuilder result = new StringBuilder();
-        int number = Integer.parseInt(integer);
+    public String convert(int number, int min, int max) {
+        return convert(number, min, max, Notation.STANDARD);
+    }
+
+    /**
+     * Convert a number into a Roman numeral in the given notation.
+     *
+     * @param number the input number to be converted
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param notation the notation the Roman numeral is written in
+     * @return String the Roman numeral value
+     */
+    public String convert(int number, int min, int max, Notation notation) {
+        long startTimer = System.nanoTime();
         // return if out of range
         if (number < min || number > max) {
             return null;
         }
-        int position = integers.length - 1;
-        // append the corresponding Roman numeral place while it is still greater than that place, starting from high to low
-        while (number > 0) {
-            while (number >= integers[position]) {
-                result.append(romanNumerals[position]);
-                number -= integers[position];
+        ConversionEvent event = beginEvent();
+        String result = lookup(number, notation);
+        commitEvent(event, "single", number, number, notation);
+        singleTimer.record(System.nanoTime() - startTimer, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Returns range of roman numerals between min and max
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @return Conversions the conversions of the range
+     */
+    public Conversions convert(int from, int to, int min, int max) {
+        return convert(from, to, min, max, Notation.STANDARD);
+    }
+
+    /**
+     * Returns range of roman numerals between min and max in the given notation
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param notation the notation the Roman numerals are written in
+     * @return Conversions the conversions of the range
+     */
+    public Conversions convert(int from, int to, int min, int max, Notation notation) {
+        long startTimer = System.nanoTime();
+
+        if (from < min || to > max) {
+            return null;
+        }
+
+        NumeralTable current = table;
+        // numbers in the table are only copied, so only the numbers beyond it are worth splitting across threads
+        boolean parallel = current.countMissing(from, to) >= parallelThreshold;
+        ConversionEvent event = beginEvent();
+        // numbers in the table are its shared instances, only numbers beyond it are allocated
+        Numeral[] numerals = current.sliceNumerals(from, to, parallel, notation);
+        commitEvent(event, "range", from, to, notation);
+        rangeTimer.record(System.nanoTime() - startTimer, TimeUnit.NANOSECONDS);
+        rangeSizes.record(numerals.length);
+        return new Conversions(from, Arrays.asList(numerals));
+    }
+
+    /**
+     * Writes range of roman numerals between min and max to the output stream as they are converted. The JSON written
+     * is the same as for the in-memory range, but only one conversion is held in memory at a time.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param outputStream the stream the JSON response is written to
+     * @throws IOException if writing to the stream fails
+     */
+    public void convert(int from, int to, int min, int max, OutputStream outputStream) throws IOException {
+        convert(from, to, min, max, Notation.STANDARD, outputStream);
+    }
+
+    /**
+     * Writes range of roman numerals between min and max in the given notation to the output stream as they are
+     * converted, so ranges over millions of numbers are never held in memory.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param notation the notation the Roman numerals are written in
+     * @param outputStream the stream the JSON response is written to
+     * @throws IOException if writing to the stream fails
+     */
+    public void convert(int from, int to, int min, int max, Notation notation, OutputStream outputStream)
+            throws IOException {
+        long startTimer = System.nanoTime();
+        // return if out of range
+        if (from < min || to > max) {
+            return;
+        }
+
+        ConversionEvent event = beginEvent();
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("conversions");
+            for (int i = from; i <= to; i++) {
+                Numeral numeral = numeral(i, notation);
+                generator.writeStartObject();
+                generator.writeStringField("input", numeral.getInteger());
+                generator.writeStringField("output", numeral.getRoman());
+                generator.writeEndObject();
             }
-            position--;
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            commitEvent(event, "stream", from, to, notation);
         }
-        // log for processing metrics
-        log.info(String.format("[TIMER] Convert \'%s\' executed in %d ms", integer, System.currentTimeMillis() - startTimer));
-        return result.toString();
+        streamTimer.record(System.nanoTime() - startTimer, TimeUnit.NANOSECONDS);
+        streamSizes.record(Math.max(to - from + 1, 0));
     }
 
     /**
-     * Returns range of roman numerals between min and max
+     * Returns range of roman numerals between min and max as a lazy stream, numbers are only converted when the stream
+     * is consumed.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @return Stream the conversions of the range, empty if out of range
+     */
+    public Stream<Numeral> stream(int from, int to, int min, int max) {
+        return stream(from, to, min, max, Notation.STANDARD);
+    }
+
+    /**
+     * Returns range of roman numerals between min and max in the given notation as a lazy stream, numbers are only
+     * converted when the stream is consumed.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param notation the notation the Roman numerals are written in
+     * @return Stream the conversions of the range, empty if out of range
+     */
+    public Stream<Numeral> stream(int from, int to, int min, int max, Notation notation) {
+        if (from < min || to > max) {
+            return Stream.empty();
+        }
+        return IntStream.rangeClosed(from, to).mapToObj(i -> numeral(i, notation));
+    }
+
+    /**
+     * Converts a JSON array of numbers read from the input stream and writes the results to the output stream in the
+     * same order. Both sides are streamed, so only one item is held in memory at a time. Each input is validated on
+     * its own, invalid inputs get an error instead of an output. Items beyond the maximum batch size are not read, an
+     * error item is written in their place.
+     *
+     * @param inputStream the stream the JSON array of numbers is read from
+     * @param outputStream the stream the JSON response is written to
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @param maxBatchSize the maximum number of items accepted
+     * @throws InvalidRequestException if the input is not a JSON array
+     * @throws IOException if reading or writing the streams fails
+     */
+    public void convertBatch(InputStream inputStream, OutputStream outputStream, int min, int max, int maxBatchSize)
+            throws IOException {
+        long startTimer = System.nanoTime();
+        int count = 0;
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (firstToken(parser) != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("Batch must be a JSON array");
+            }
+            try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("conversions");
+                try {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            throw new JsonParseException(parser, "Unexpected end of batch");
+                        }
+                        if (++count > maxBatchSize) {
+                            writeError(generator, String.format("Batch must not contain more than %d items", maxBatchSize));
+                            break;
+                        }
+                        writeBatchItem(parser, generator, token, min, max);
+                    }
+                } catch (JsonProcessingException e) {
+                    // the response is already committed, report the malformed input as the last item
+                    writeError(generator, "Batch must be a JSON array");
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+        batchTimer.record(System.nanoTime() - startTimer, TimeUnit.NANOSECONDS);
+        batchSizes.record(Math.min(count, maxBatchSize));
+    }
+
+    private static JsonToken firstToken(JsonParser parser) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void writeBatchItem(JsonParser parser, JsonGenerator generator, JsonToken token, int min, int max)
+            throws IOException {
+        generator.writeStartObject();
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            generator.writeNullField("input");
+            generator.writeStringField("error", "Query must be an integer");
+        } else {
+            String input = token == JsonToken.VALUE_NULL ? null : parser.getText();
+            generator.writeStringField("input", input);
+            try {
+                generator.writeStringField("output", lookup(validator.validate(input, min, max)));
+            } catch (InvalidRequestException e) {
+                generator.writeStringField("error", e.getMessage());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeError(JsonGenerator generator, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Parse a Roman numeral into a number.
+     *
+     * @param roman the Roman numeral to be parsed
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @return int the number value
+     * @throws InvalidRequestException if it is not a canonical Roman numeral or not within range
+     */
+    public int parse(String roman, int min, int max) {
+        int number = parseRoman(roman);
+        if (number < 0) {
+            romanFailures.increment();
+            throw new InvalidRequestException("Query must be a Roman numeral");
+        }
+        if (number < min || number > max) {
+            rangeFailures.increment();
+            throw new InvalidRequestException(String.format("Query must be within range of %d-%d", min, max));
+        }
+        return number;
+    }
+
+    /**
+     * Add two Roman numerals. The sum is the shared RomanNumeral of the lookup table, so nothing is allocated.
      *
-     * @param normalizedMin
-     * @param normalizedMax
-     * @param min
-     * @param max
-     * @return
+     * @param augend the Roman numeral added to
+     * @param addend the Roman numeral added
+     * @param min the minimum number accepted, for both the Roman numerals and the sum
+     * @param max the maximum number accepted, for both the Roman numerals and the sum
+     * @return RomanNumeral the sum
+     * @throws InvalidRequestException if either is not a canonical Roman numeral or is not within range, or the sum is
+     * not within range
      */
-    public JSONObject convert(String normalizedMin, String normalizedMax, int min, int max) {
-        long startTimer = System.currentTimeMillis();
-        JSONObject conversions = new JSONObject();
-        List<Numeral> numeralList = new ArrayList<>();
+    public RomanNumeral add(String augend, String addend, int min, int max) {
+        long sum = (long) parse(augend, min, max) + parse(addend, min, max);
+        return romanNumeral(validator.validateResult(sum, min, Math.min(max, NumeralTable.STANDARD_MAX)));
+    }
 
-        if (Integer.parseInt(normalizedMin) < min || Integer.parseInt(normalizedMax) > max) {
+    /**
+     * Subtract a Roman numeral from another. There is no Roman numeral for zero or negative numbers, so the minuend
+     * must be the larger one.
+     *
+     * @param minuend the Roman numeral subtracted from
+     * @param subtrahend the Roman numeral subtracted
+     * @param min the minimum number accepted, for both the Roman numerals and the difference
+     * @param max the maximum number accepted, for both the Roman numerals and the difference
+     * @return RomanNumeral the difference
+     * @throws InvalidRequestException if either is not a canonical Roman numeral or is not within range, or the
+     * difference is not within range
+     */
+    public RomanNumeral subtract(String minuend, String subtrahend, int min, int max) {
+        long difference = (long) parse(minuend, min, max) - parse(subtrahend, min, max);
+        return romanNumeral(validator.validateResult(difference, min,
+                Math.min(max, NumeralTable.STANDARD_MAX)));
+    }
+
+    /**
+     * Compare two Roman numerals by their value.
+     *
+     * @param first the first Roman numeral
+     * @param second the second Roman numeral
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @return int -1, 0 or 1 as the first is less than, equal to or greater than the second
+     * @throws InvalidRequestException if either is not a canonical Roman numeral or is not within range
+     */
+    public int compare(String first, String second, int min, int max) {
+        return Integer.compare(parse(first, min, max), parse(second, min, max));
+    }
+
+    /**
+     * Parse a canonical Roman numeral in a single pass without allocating. Each decimal place is matched in turn from
+     * thousands down to ones, so non-canonical forms such as IIII, VX or IC leave characters unread and are rejected.
+     *
+     * @param roman the Roman numeral to be parsed
+     * @return int the number value, or -1 if it is not a canonical Roman numeral
+     */
+    static int parseRoman(CharSequence roman) {
+        int length = roman.length();
+        int position = 0;
+        int number = 0;
+        // up to three thousands
+        while (position < length && position < 3 && roman.charAt(position) == 'M') {
+            number += 1000;
+            position++;
+        }
+        int multiplier = 100;
+        for (char[] place : places) {
+            char one = place[0];
+            char five = place[1];
+            char ten = place[2];
+            int digit = 0;
+            // subtractive forms 9 and 4
+            if (position + 1 < length && roman.charAt(position) == one) {
+                char next = roman.charAt(position + 1);
+                if (next == ten) {
+                    digit = 9;
+                    position += 2;
+                } else if (next == five) {
+                    digit = 4;
+                    position += 2;
+                }
+            }
+            // additive forms 0-3 and 5-8
+            if (digit == 0) {
+                if (position < length && roman.charAt(position) == five) {
+                    digit = 5;
+                    position++;
+                }
+                int ones = 0;
+                while (position < length && ones < 3 && roman.charAt(position) == one) {
+                    ones++;
+                    position++;
+                }
+                digit += ones;
+            }
+            number += digit * multiplier;
+            multiplier /= 10;
+        }
+        return position == length && number > 0 ? number : -1;
+    }
+
+    /**
+     * Start timing a conversion, if tracing is enabled.
+     *
+     * @return ConversionEvent the started event, or null if tracing is disabled
+     */
+    private static ConversionEvent beginEvent() {
+        if (!Tracing.isEnabled()) {
             return null;
         }
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commitEvent(ConversionEvent event, String type, int from, int to, Notation notation) {
+        if (event == null) {
+            return;
+        }
+        // the fields are only filled in if the event is recorded, which needs its duration
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type;
+            event.from = from;
+            event.to = to;
+            event.notation = notation.name().toLowerCase(Locale.ROOT);
+            event.commit();
+        }
+    }
 
-        for (int i = Integer.parseInt(normalizedMin); i <= Integer.parseInt(normalizedMax); i++) {
-            String roman = convert(String.valueOf(i), min, max);
-            numeralList.add(new Numeral(String.valueOf(i), roman));
+    private static Timer conversionTimer(MeterRegistry registry, String type) {
+        return Timer.builder("romannumeral.conversion")
+                .description("Time taken to convert numbers to Roman numerals")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static DistributionSummary rangeSize(MeterRegistry registry, String type) {
+        return DistributionSummary.builder("romannumeral.range.size")
+                .description("Number of conversions per request")
+                .baseUnit("numerals")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    /**
+     * Look up the Roman numeral of a number, falling back to converting when the range was overridden beyond the table.
+     *
+     * @param number the number to be converted
+     * @return String the Roman numeral value
+     */
+    private String lookup(int number) {
+        return lookup(number, Notation.STANDARD);
+    }
+
+    /**
+     * Look up the Roman numeral of a number, falling back to converting in the given notation when it is beyond the
+     * table.
+     *
+     * @param number the number to be converted
+     * @param notation the notation numbers beyond the table are written in
+     * @return String the Roman numeral value
+     */
+    private String lookup(int number, Notation notation) {
+        String roman = table.get(number);
+        return roman != null ? roman : toRoman(number, notation);
+    }
+
+    /**
+     * Look up the shared conversion of a number, falling back to a new one in the given notation when it is beyond the
+     * table.
+     *
+     * @param number the number to be converted
+     * @param notation the notation numbers beyond the table are written in
+     * @return Numeral the conversion of the number
+     */
+    private Numeral numeral(int number, Notation notation) {
+        Numeral numeral = table.getNumeral(number);
+        return numeral != null ? numeral : new Numeral(String.valueOf(number), toRoman(number, notation));
+    }
+
+    /**
+     * Look up the shared Roman numeral value of a number, falling back to a new one when the table of a reloaded range
+     * does not hold it yet.
+     *
+     * @param number the number within the standard notation
+     * @return RomanNumeral the Roman numeral value of the number
+     */
+    private RomanNumeral romanNumeral(int number) {
+        RomanNumeral numeral = table.getRomanNumeral(number);
+        return numeral != null ? numeral : new RomanNumeral(number, toRoman(number));
+    }
+
+    /**
+     * Convert a number into a Roman numeral without the lookup table.
+     *
+     * @param number the input number to be converted
+     * @return String the Roman numeral value
+     */
+    static String toRoman(int number) {
+        return toRoman(number, Notation.STANDARD);
+    }
+
+    /**
+     * Convert a number into a Roman numeral in the given notation without the lookup table. In the extended notations
+     * the time taken and the length of the result grow with the number of digits, not with the size of the number.
+     *
+     * @param number the input number to be converted
+     * @param notation the notation the Roman numeral is written in
+     * @return String the Roman numeral value
+     */
+    static String toRoman(int number, Notation notation) {
+        StringBuilder result = new StringBuilder();
+        appendRoman(result, number, notation);
+        return result.toString();
+    }
+
+    private static void appendRoman(StringBuilder result, int number, Notation notation) {
+        if (notation != Notation.STANDARD && number > NumeralTable.STANDARD_MAX) {
+            // the thousands are a numeral of their own, which is itself extended if it is above 3999
+            StringBuilder thousands = new StringBuilder();
+            appendRoman(thousands, number / 1000, notation);
+            if (notation == Notation.VINCULUM) {
+                for (int i = 0; i < thousands.length(); i++) {
+                    char letter = thousands.charAt(i);
+                    result.append(letter);
+                    // letters overlined already get a second overline
+                    if (letter != Notation.OVERLINE) {
+                        result.append(Notation.OVERLINE);
+                    }
+                }
+            } else {
+                result.append('(').append(thousands).append(')');
+            }
+            number %= 1000;
+        }
+        int position = integers.length - 1;
+        // append the corresponding Roman numeral place while it is still greater than that place, starting from high to low
+        while (number > 0) {
+            while (number >= integers[position]) {
+                result.append(romanNumerals[position]);
+                number -= integers[position];
+            }
+            position--;
         }
-        conversions.put("conversions", numeralList);
-        // log for processing metrics
-        log.info(String.format("[TIMER] Convert \'%s\' to \'%s\' executed in %d ms", normalizedMin, normalizedMax,
-                System.currentTimeMillis() - startTimer));
-        return conversions;
     }
 }
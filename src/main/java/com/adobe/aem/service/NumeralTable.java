@@ -0,0 +1,231 @@
+package com.adobe.aem.service;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.stream.IntStream;
+
+/**
+ * This is the precomputed lookup table of Roman numerals for the configured range. It is built once at startup and
+ * never modified afterwards, so a single conversion is one array read and a range is one array copy.
+ * Every number is held as a shared Numeral with its decimal and Roman strings (a flyweight), so responses reference
+ * the entries of the table instead of allocating new objects for every number of a range. Every number is also held as
+ * a shared RomanNumeral with the same Roman string, for arithmetic on Roman numerals.
+ * Only numbers that have a standard Roman numeral (1-3999) are stored.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Slf4j
+public final class NumeralTable {
+
+    /**
+     * Largest number that can be written in standard Roman numeral notation
+     */
+    public static final int STANDARD_MAX = 3999;
+
+    // approximate object sizes on a 64-bit JVM with compressed oops and compact strings
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+    private static final int NUMERAL_BYTES = 12 + 2 * 4;
+    private static final int ROMAN_NUMERAL_BYTES = 12 + 4 + 4;
+    private static final int ARRAY_OVERHEAD_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final int first;
+    private final Numeral[] numerals;
+    private final RomanNumeral[] romanNumerals;
+    private final long warmupNanos;
+    private final long estimatedBytes;
+
+    private NumeralTable(int first, Numeral[] numerals, RomanNumeral[] romanNumerals, long warmupNanos,
+                         long estimatedBytes) {
+        this.first = first;
+        this.numerals = numerals;
+        this.romanNumerals = romanNumerals;
+        this.warmupNanos = warmupNanos;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * Build the table for every number between min and max that has a standard Roman numeral.
+     *
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @return NumeralTable the immutable table
+     */
+    public static NumeralTable build(int min, int max) {
+        long startTimer = System.nanoTime();
+        int first = Math.max(min, 1);
+        int last = Math.min(max, STANDARD_MAX);
+        Numeral[] numerals = new Numeral[Math.max(last - first + 1, 0)];
+        RomanNumeral[] romanNumerals = new RomanNumeral[numerals.length];
+        long estimatedBytes = 2 * align(ARRAY_OVERHEAD_BYTES + (long) REFERENCE_BYTES * numerals.length);
+        for (int i = 0; i < numerals.length; i++) {
+            numerals[i] = new Numeral(String.valueOf(first + i), AEMService.toRoman(first + i));
+            romanNumerals[i] = new RomanNumeral(first + i, numerals[i].getRoman());
+            estimatedBytes += align(NUMERAL_BYTES) + align(ROMAN_NUMERAL_BYTES)
+                    + align(STRING_OVERHEAD_BYTES + numerals[i].getInteger().length())
+                    + align(STRING_OVERHEAD_BYTES + numerals[i].getRoman().length());
+        }
+        long warmupNanos = System.nanoTime() - startTimer;
+        log.info("Built Roman numeral table for {}-{} ({} entries) in {} us, ~{} KB", first, last, numerals.length,
+                warmupNanos / 1_000, estimatedBytes / 1_024);
+        return new NumeralTable(first, numerals, romanNumerals, warmupNanos, estimatedBytes);
+    }
+
+    /**
+     * Look up the Roman numeral of a number.
+     *
+     * @param number the number to look up
+     * @return String the Roman numeral, or null if the number is not in the table
+     */
+    public String get(int number) {
+        Numeral numeral = getNumeral(number);
+        return numeral != null ? numeral.getRoman() : null;
+    }
+
+    /**
+     * Look up the shared conversion of a number.
+     *
+     * @param number the number to look up
+     * @return Numeral the conversion held by the table, or null if the number is not in the table
+     */
+    public Numeral getNumeral(int number) {
+        int index = number - first;
+        if (index < 0 || index >= numerals.length) {
+            return null;
+        }
+        return numerals[index];
+    }
+
+    /**
+     * Look up the shared Roman numeral value of a number.
+     *
+     * @param number the number to look up
+     * @return RomanNumeral the value held by the table, or null if the number is not in the table
+     */
+    public RomanNumeral getRomanNumeral(int number) {
+        int index = number - first;
+        if (index < 0 || index >= romanNumerals.length) {
+            return null;
+        }
+        return romanNumerals[index];
+    }
+
+    /**
+     * Copy the Roman numerals between from and to. Numbers that are not in the table are converted on the fly.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @return String[] the Roman numerals in order, empty if from is greater than to
+     */
+    public String[] slice(int from, int to) {
+        return slice(from, to, false);
+    }
+
+    /**
+     * Copy the Roman numerals between from and to. Numbers that are not in the table are converted on the fly, split
+     * across the common fork-join pool if parallel is set.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param parallel whether numbers outside the table are converted in parallel
+     * @return String[] the Roman numerals in order, empty if from is greater than to
+     */
+    public String[] slice(int from, int to, boolean parallel) {
+        return slice(from, to, parallel, Notation.STANDARD);
+    }
+
+    /**
+     * Copy the Roman numerals between from and to. Numbers that are not in the table are converted on the fly in the
+     * given notation, split across the common fork-join pool if parallel is set.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param parallel whether numbers outside the table are converted in parallel
+     * @param notation the notation numbers outside the table are written in
+     * @return String[] the Roman numerals in order, empty if from is greater than to
+     */
+    public String[] slice(int from, int to, boolean parallel, Notation notation) {
+        Numeral[] slice = sliceNumerals(from, to, parallel, notation);
+        String[] result = new String[slice.length];
+        for (int i = 0; i < slice.length; i++) {
+            result[i] = slice[i].getRoman();
+        }
+        return result;
+    }
+
+    /**
+     * Copy the conversions between from and to. Numbers in the table are the shared instances of the table, numbers
+     * that are not are converted on the fly in the given notation, split across the common fork-join pool if parallel
+     * is set. The table only holds numbers up to 3999, which are written the same in every notation.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @param parallel whether numbers outside the table are converted in parallel
+     * @param notation the notation numbers outside the table are written in
+     * @return Numeral[] the conversions in order, empty if from is greater than to
+     */
+    public Numeral[] sliceNumerals(int from, int to, boolean parallel, Notation notation) {
+        if (from > to) {
+            return new Numeral[0];
+        }
+        Numeral[] result = new Numeral[to - from + 1];
+        int copyFrom = Math.max(from, first);
+        int copyTo = Math.min(to, first + numerals.length - 1);
+        // numbers below the table come before the copied ones and numbers above it after, either may be none
+        int below = result.length;
+        int above = result.length;
+        if (copyFrom <= copyTo) {
+            System.arraycopy(numerals, copyFrom - first, result, copyFrom - from, copyTo - copyFrom + 1);
+            below = copyFrom - from;
+            above = copyTo - from + 1;
+        }
+        if (below == 0 && above == result.length) {
+            return result;
+        }
+        IntStream indexes = IntStream.concat(IntStream.range(0, below), IntStream.range(above, result.length));
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        // each index is written by exactly one task, so the order of the result is kept
+        indexes.forEach(i -> result[i] = new Numeral(String.valueOf(from + i), AEMService.toRoman(from + i, notation)));
+        return result;
+    }
+
+    /**
+     * Count the numbers between from and to that are not in the table, which are the only ones converted when the
+     * range is sliced.
+     *
+     * @param from the first number of the range
+     * @param to the last number of the range
+     * @return int the number of conversions a slice of the range computes, 0 if from is greater than to
+     */
+    public int countMissing(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        int copyFrom = Math.max(from, first);
+        int copyTo = Math.min(to, first + numerals.length - 1);
+        return to - from + 1 - Math.max(copyTo - copyFrom + 1, 0);
+    }
+
+    public int size() {
+        return numerals.length;
+    }
+
+    public long getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
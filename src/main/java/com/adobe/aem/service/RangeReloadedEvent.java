@@ -0,0 +1,28 @@
+package com.adobe.aem.service;
+
+import com.adobe.aem.domain.NumeralRange;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * This is the event published once a new range has been reloaded and the lookup table of AEMService has been rebuilt
+ * for it. Controllers switch to the new range and the response cache drops the responses of the old one, in that
+ * order: the controllers listen with the highest precedence and the response cache with the lowest. A request that
+ * missed the cache after it was cleared is then always validated against the new range.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public class RangeReloadedEvent extends ApplicationEvent {
+
+    private final NumeralRange range;
+
+    public RangeReloadedEvent(Object source, NumeralRange range) {
+        super(source);
+        this.range = range;
+    }
+
+    public NumeralRange getRange() {
+        return range;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.adobe.aem.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the recorder of the startup time and of the time to the first response, both measured from the start of
+ * the JVM. They are published as romannumeral.startup.time and romannumeral.startup.first-response, and logged, so
+ * they can be tracked across builds. Once the first response is recorded the filter is skipped.
+ * For the class data sharing archive of the Docker image, romannumeral.startup.exit-on-ready stops the application
+ * as soon as it is ready.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class StartupMetrics extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean exitOnReady;
+    private final AtomicLong readyMillis = new AtomicLong(-1);
+    private final AtomicLong firstResponseMillis = new AtomicLong(-1);
+
+    /**
+     * Create the recorder, publishing its metrics to the global registry which Spring Boot connects to the actuator
+     * registries.
+     *
+     * @param exitOnReady whether to exit as soon as the application is ready
+     */
+    @Autowired
+    public StartupMetrics(@Value("${romannumeral.startup.exit-on-ready:false}") boolean exitOnReady) {
+        this(exitOnReady, Metrics.globalRegistry);
+    }
+
+    public StartupMetrics(boolean exitOnReady, MeterRegistry registry) {
+        this.exitOnReady = exitOnReady;
+        TimeGauge.builder("romannumeral.startup.time", readyMillis, TimeUnit.MILLISECONDS, StartupMetrics::orNaN)
+                .description("Time from the start of the JVM until the application is ready")
+                .register(registry);
+        TimeGauge.builder("romannumeral.startup.first-response", firstResponseMillis, TimeUnit.MILLISECONDS,
+                StartupMetrics::orNaN)
+                .description("Time from the start of the JVM until the first response is written")
+                .register(registry);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        readyMillis.compareAndSet(-1, uptime);
+        log.info("Application ready {} ms after the start of the JVM", uptime);
+        if (exitOnReady) {
+            log.info("Exiting on ready");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return firstResponseMillis.get() >= 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstResponseMillis.compareAndSet(-1, uptime)) {
+            log.info("First response to {} written {} ms after the start of the JVM", request.getRequestURI(), uptime);
+        }
+    }
+
+    public long getReadyMillis() {
+        return readyMillis.get();
+    }
+
+    public long getFirstResponseMillis() {
+        return firstResponseMillis.get();
+    }
+
+    private static double orNaN(AtomicLong millis) {
+        long value = millis.get();
+        return value < 0 ? Double.NaN : value;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.adobe.aem.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This is the flight recorder event of a conversion by AEMService, of a single number, of a range or of a streamed
+ * range. The time of a streamed range includes writing it to the client.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Name("com.adobe.aem.Conversion")
+@Label("Conversion")
+@Category("Roman Numeral")
+@Description("Conversion of a number or a range of numbers to Roman numerals")
+@StackTrace(false)
+@Threshold("100 us")
+public class ConversionEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    @Description("single, range or stream")
+    public String type;
+
+    @Label("From")
+    public int from;
+
+    @Label("To")
+    public int to;
+
+    @Label("Notation")
+    public String notation;
+
+}
@@ -0,0 +1,36 @@
+package com.adobe.aem.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This is the flight recorder event of a whole request, from the first filter to the response. The validation,
+ * conversion and serialization events of a request are recorded on the same thread within it, the rest of its time is
+ * spent in the filters and in the dispatch of Spring.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Name("com.adobe.aem.Request")
+@Label("Request")
+@Category("Roman Numeral")
+@Description("Request from the first filter to the response")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Path pattern of the handler, or the path if no handler matched")
+    public String endpoint;
+
+    @Label("Status")
+    public int status;
+
+}
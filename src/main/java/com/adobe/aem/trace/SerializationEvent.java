@@ -0,0 +1,36 @@
+package com.adobe.aem.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This is the flight recorder event of writing a response body with the JSON or binary message converter.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Name("com.adobe.aem.Serialization")
+@Label("Serialization")
+@Category("Roman Numeral")
+@Description("Rendering and writing of a response body")
+@StackTrace(false)
+@Threshold("100 us")
+public class SerializationEvent extends jdk.jfr.Event {
+
+    @Label("Format")
+    @Description("json or binary")
+    public String format;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+}
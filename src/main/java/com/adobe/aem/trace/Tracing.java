@@ -0,0 +1,44 @@
+package com.adobe.aem.trace;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * This is the switch of the flight recorder events of the application, set from romannumeral.tracing.enabled.
+ * While it is off, the traced code only reads the flag and no event is created. While it is on, events are created
+ * and timed, but only written if a recording with the events enabled is running, so the cost of a request without a
+ * recording is a few nanoseconds per event.
+ * Recordings only keep requests over 1 ms and validations, conversions and serializations over 100 us by default, so a
+ * continuous recording holds the slow requests and where their time went. Lower thresholds are set in the .jfc
+ * settings of a recording.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class Tracing {
+
+    private static volatile boolean enabled;
+
+    private Tracing() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn the events on or off. The events are registered when they are turned on, so recordings started before the
+     * first request already list them.
+     *
+     * @param enabled whether the events are created
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled) {
+            FlightRecorder.register(ValidationEvent.class);
+            FlightRecorder.register(ConversionEvent.class);
+            FlightRecorder.register(SerializationEvent.class);
+            FlightRecorder.register(RequestEvent.class);
+        }
+        Tracing.enabled = enabled;
+    }
+
+}
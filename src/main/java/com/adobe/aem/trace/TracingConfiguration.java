@@ -0,0 +1,37 @@
+package com.adobe.aem.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * This is the configuration of the flight recorder events, turned on with romannumeral.tracing.enabled. It is never
+ * lazily initialized, so the events are turned on at startup in every profile.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Lazy(false)
+@Slf4j
+public class TracingConfiguration {
+
+    public TracingConfiguration(@Value("${romannumeral.tracing.enabled:false}") boolean enabled) {
+        Tracing.setEnabled(enabled);
+        if (enabled) {
+            log.info("Flight recorder events enabled, they are written while a recording is running");
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty("romannumeral.tracing.enabled")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public TracingFilter tracingFilter() {
+        return new TracingFilter();
+    }
+
+}
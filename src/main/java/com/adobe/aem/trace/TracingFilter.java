@@ -0,0 +1,45 @@
+package com.adobe.aem.trace;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * This is the filter recording a RequestEvent for every request. It is ordered first, so responses served from the
+ * response cache and requests rejected by the rate limit are recorded too. Streamed responses are written after the
+ * filter returns, their event ends once the stream is handed over to the async executor.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // the fields are only filled in if the event is recorded, which needs its duration
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+
+}
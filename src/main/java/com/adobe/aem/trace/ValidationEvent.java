@@ -0,0 +1,33 @@
+package com.adobe.aem.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This is the flight recorder event of the validation of a number in a request, see RequestValidator.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+@Name("com.adobe.aem.Validation")
+@Label("Validation")
+@Category("Roman Numeral")
+@Description("Validation of a number in a request")
+@StackTrace(false)
+@Threshold("100 us")
+public class ValidationEvent extends jdk.jfr.Event {
+
+    @Label("Minimum")
+    public int min;
+
+    @Label("Maximum")
+    public int max;
+
+    @Label("Valid")
+    public boolean valid;
+
+}
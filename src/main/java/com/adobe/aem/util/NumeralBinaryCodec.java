@@ -0,0 +1,164 @@
+package com.adobe.aem.util;
+
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Numeral;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is the compact binary encoding of conversion responses, an alternative to JSON for clients calling at high
+ * rates. Integers are unsigned varints as in protobuf, strings are a varint byte length followed by UTF-8.
+ * <pre>
+ * numeral:     0x01 input output
+ * conversions: 0x02 start count output...
+ * </pre>
+ * The inputs of a range are not repeated, the input of the n-th output is start + n.
+ *
+ * @author  Ankith Aiyar
+ * @version 1.0
+ */
+public final class NumeralBinaryCodec {
+
+    /**
+     * First byte of an encoded Numeral
+     */
+    public static final byte NUMERAL = 0x01;
+
+    /**
+     * First byte of encoded Conversions
+     */
+    public static final byte CONVERSIONS = 0x02;
+
+    private NumeralBinaryCodec() {
+    }
+
+    /**
+     * Encode a single conversion, a missing value is encoded as an empty string.
+     *
+     * @param numeral the conversion to be encoded
+     * @return byte[] the encoded conversion
+     */
+    public static byte[] encode(Numeral numeral) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(NUMERAL);
+        writeString(out, numeral.getInteger());
+        writeString(out, numeral.getRoman());
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode the conversions of a range.
+     *
+     * @param conversions the conversions to be encoded
+     * @return byte[] the encoded conversions
+     */
+    public static byte[] encode(Conversions conversions) {
+        List<Numeral> numerals = conversions.getConversions();
+        // most Roman numerals are shorter than 15 letters
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + numerals.size() * 12);
+        out.write(CONVERSIONS);
+        writeVarint(out, conversions.getStart());
+        writeVarint(out, numerals.size());
+        for (Numeral numeral : numerals) {
+            writeString(out, numeral.getRoman());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a single conversion or the conversions of a range.
+     *
+     * @param bytes the encoded response
+     * @return Object the decoded Numeral or Conversions
+     * @throws IllegalArgumentException if the bytes are not an encoded response
+     */
+    public static Object decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            Object value;
+            byte type = buffer.get();
+            if (type == NUMERAL) {
+                value = new Numeral(readString(buffer), readString(buffer));
+            } else if (type == CONVERSIONS) {
+                int start = readVarint(buffer);
+                int count = readVarint(buffer);
+                // every output takes at least one byte, which bounds the list for malformed input
+                if (count > buffer.remaining()) {
+                    throw new IllegalArgumentException("Truncated conversions");
+                }
+                List<Numeral> numerals = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    numerals.add(new Numeral(String.valueOf(start + i), readString(buffer)));
+                }
+                value = new Conversions(start, numerals);
+            } else {
+                throw new IllegalArgumentException("Unknown type " + type);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected bytes after " + buffer.position());
+            }
+            return value;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated response", e);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write(value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        // numbers and Roman numerals are ASCII except in vinculum notation, those are written without encoding a copy
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            writeVarint(out, length);
+            for (int i = 0; i < length; i++) {
+                out.write(value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated string");
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+}
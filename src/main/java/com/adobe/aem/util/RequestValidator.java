@@ -1,8 +1,15 @@
 package com.adobe.aem.util;
 
+import com.adobe.aem.domain.Notation;
 import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.trace.Tracing;
+import com.adobe.aem.trace.ValidationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
 
 /**
  * This is the validator for all incoming requests. If any checks fail, an InvalidRequestException is thrown.
@@ -10,74 +17,155 @@ import org.apache.commons.lang3.StringUtils;
  * @author  Ankith Aiyar
  * @version 1.0
  */
+@Component
 @Slf4j
 public class RequestValidator {
 
     /**
-     * Validate request value.
+     * Name of the counter of failed validations, tagged by reason
+     */
+    public static final String VALIDATION_FAILURES = "romannumeral.validation.failures";
+
+    private final Counter blankFailures;
+    private final Counter integerFailures;
+    private final Counter rangeFailures;
+    private final Counter notationFailures;
+
+    /**
+     * Create the validator.
+     *
+     * @param registry the registry failed validations are counted on
+     */
+    public RequestValidator(MeterRegistry registry) {
+        this.blankFailures = registry.counter(VALIDATION_FAILURES, "reason", "blank");
+        this.integerFailures = registry.counter(VALIDATION_FAILURES, "reason", "not_integer");
+        this.rangeFailures = registry.counter(VALIDATION_FAILURES, "reason", "out_of_range");
+        this.notationFailures = registry.counter(VALIDATION_FAILURES, "reason", "not_notation");
+    }
+
+    /**
+     * Validate request value and return it as a number. The value is scanned once, leading and trailing spaces are
+     * skipped instead of trimmed, and integers too large for an int are out of range rather than failing to parse.
      *
      * @param request the request being checked
      * @param min the minimum number accepted
      * @param max the maximum number accepted
      * @throws InvalidRequestException if request did not pass check
-     * @return void
+     * @return int the number value of the request
      */
-    public static void validate(String request, int min, int max) {
-        // check for null, empty, or only spaces
-        if (StringUtils.isBlank(request)) {
-            log.warn(String.format("Query \'%s\' is blank", request));
-            throw new InvalidRequestException("Query must contain a value");
-        }
-        // check for valid integer
-        if (!isInteger(request)) {
-            log.warn(String.format("Query \'%s\' is not an integer", request));
-            throw new InvalidRequestException("Query must be an integer");
-        }
-        // check that number is within range
-        if (!isInRange(min, max, Integer.parseInt(request))) {
-            log.warn(String.format("Query \'%s\' is not within range of %d-%d", request, min, max));
-            throw new InvalidRequestException(String.format("Query must be within range of %d-%d", min, max));
-        }
-        log.debug(String.format("Query \'%s\' passed validation", request));
+    public int validate(String request, int min, int max) {
+        return validate("Query", request, min, max);
     }
 
     /**
-     * Validate request value.
+     * Validate a named request parameter and return it as a number, the same as the query. Failures name the
+     * parameter, so a client can tell which one was rejected.
      *
-     * @param normalizedMin the request being checked
-     * @param normalizedMax the request being checked
+     * @param name the name of the parameter in the failure messages
+     * @param request the request being checked
      * @param min the minimum number accepted
      * @param max the maximum number accepted
      * @throws InvalidRequestException if request did not pass check
-     * @return void
+     * @return int the number value of the request
      */
-    public static void validate(String normalizedMin, String normalizedMax, int min, int max) {
+    public int validate(String name, String request, int min, int max) {
+        if (!Tracing.isEnabled()) {
+            return check(name, request, min, max);
+        }
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        boolean valid = false;
+        try {
+            int number = check(name, request, min, max);
+            valid = true;
+            return number;
+        } finally {
+            // the fields are only filled in if the event is recorded, which needs its duration
+            event.end();
+            if (event.shouldCommit()) {
+                event.valid = valid;
+                event.min = min;
+                event.max = max;
+                event.commit();
+            }
+        }
+    }
+
+    private int check(String name, String request, int min, int max) {
         // check for null, empty, or only spaces
-        if (StringUtils.isBlank(normalizedMin) || StringUtils.isBlank(normalizedMax)) {
-            log.warn(String.format("Query \'%s\' or \'%s\' is blank", normalizedMin, normalizedMax));
-            throw new InvalidRequestException("Query must contain a value");
+        int start = 0;
+        int end = request == null ? 0 : request.length();
+        while (start < end && request.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && request.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            log.debug("Query '{}' is blank", request);
+            blankFailures.increment();
+            throw new InvalidRequestException(name + " must contain a value");
         }
-        // check for valid integer
-        if (!isInteger(normalizedMin) || !isInteger(normalizedMax)) {
-            log.warn(String.format("Query \'%s\' or \'%s\' is not an integer", normalizedMin, normalizedMax));
-            throw new InvalidRequestException("Query must be an integer");
+        // check for valid integer, accumulating its value until it no longer fits an int
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = request.charAt(i);
+            if (c < '0' || c > '9') {
+                log.debug("Query '{}' is not an integer", request);
+                integerFailures.increment();
+                throw new InvalidRequestException(name + " must be an integer");
+            }
+            if (number <= Integer.MAX_VALUE) {
+                number = number * 10 + (c - '0');
+            }
         }
         // check that number is within range
-        if (!isInRange(min, max, Integer.parseInt(normalizedMin)) || !isInRange(min, max, Integer.parseInt(normalizedMax))) {
-            log.warn(String.format("Query \'%s\' or \'%s\' is not within range of %d-%d", normalizedMin, normalizedMax, min, max));
-            throw new InvalidRequestException(String.format("Query must be within range of %d-%d", min, max));
+        if (!isInRange(min, max, number)) {
+            log.debug("Query '{}' is not within range of {}-{}", request, min, max);
+            rangeFailures.increment();
+            throw new InvalidRequestException(String.format("%s must be within range of %d-%d", name, min, max));
         }
-        log.debug(String.format("Query \'%s\' - \'%s\' passed validation", normalizedMin, normalizedMax));
+        log.debug("Query '{}' passed validation", request);
+        return (int) number;
     }
 
     /**
-     * Check if request is an integer.
+     * Validate the result of arithmetic on requested values against the same range as the requested values.
+     * The result is a long, so sums and differences of any two ints are checked without overflowing.
      *
-     * @param request the value being checked
-     * @return boolean
+     * @param result the result being checked
+     * @param min the minimum number accepted
+     * @param max the maximum number accepted
+     * @throws InvalidRequestException if result is not within range
+     * @return int the result
      */
-    private static boolean isInteger(String request) {
-        return StringUtils.isNumeric(request);
+    public int validateResult(long result, int min, int max) {
+        if (!isInRange(min, max, result)) {
+            log.debug("Result '{}' is not within range of {}-{}", result, min, max);
+            rangeFailures.increment();
+            throw new InvalidRequestException(String.format("Result must be within range of %d-%d", min, max));
+        }
+        return (int) result;
+    }
+
+    /**
+     * Validate requested notation, standard notation is used if none is requested.
+     *
+     * @param request the notation being checked, case insensitive
+     * @throws InvalidRequestException if request is not a known notation
+     * @return Notation the requested notation
+     */
+    public Notation validateNotation(String request) {
+        if (request == null || request.trim().isEmpty()) {
+            return Notation.STANDARD;
+        }
+        try {
+            return Notation.valueOf(request.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.debug("Notation '{}' is not supported", request);
+            notationFailures.increment();
+            throw new InvalidRequestException("Notation must be one of standard, vinculum, parentheses");
+        }
     }
 
     /**
@@ -86,7 +174,7 @@ public class RequestValidator {
      * @param request the value being checked
      * @return boolean
      */
-    private static boolean isInRange(int min, int max, int request) {
+    private static boolean isInRange(int min, int max, long request) {
         return min <= request && request <= max;
     }
 
@@ -1,11 +1,25 @@
 package com.adobe.aem;
 
+import com.adobe.aem.cache.ResponseCacheFilter;
 import com.adobe.aem.controller.AEMController;
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.service.RangeReloadedEvent;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 class AEMApplicationTest {
@@ -13,9 +27,67 @@ class AEMApplicationTest {
     @Autowired
     private AEMController controller;
 
+    @Autowired
+    private ResponseCacheFilter cacheFilter;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private ReloadProbe probe;
+
     @Test
     public void contextLoads() throws Exception {
         assertNotNull(controller);
     }
 
+    @Test
+    void testRangeReloaded_SwitchesRangeBeforeClearingCache() {
+        long generation = cacheFilter.getCache().generation();
+        try {
+            publisher.publishEvent(new RangeReloadedEvent(this, new NumeralRange(10, 100)));
+            // in between, the controller already rejects the old range while the cache is not cleared yet
+            assertEquals(1, probe.generations.size());
+            assertEquals(generation, (long) probe.generations.get(0));
+            assertThrows(InvalidRequestException.class, () -> controller.convertToRomanNumeral("5", null));
+            assertEquals(generation + 1, cacheFilter.getCache().generation());
+        } finally {
+            publisher.publishEvent(new RangeReloadedEvent(this, new NumeralRange(1, 3999)));
+        }
+    }
+
+    @TestConfiguration
+    static class ReloadProbeConfiguration {
+
+        @Bean
+        ReloadProbe reloadProbe(AEMController controller, ResponseCacheFilter cacheFilter) {
+            return new ReloadProbe(controller, cacheFilter);
+        }
+    }
+
+    /**
+     * Listens between the controllers and the response cache, recording the generation of the cache once the
+     * controller rejects numbers below the reloaded range.
+     */
+    static class ReloadProbe {
+
+        private final AEMController controller;
+        private final ResponseCacheFilter cacheFilter;
+        private final List<Long> generations = new ArrayList<>();
+
+        ReloadProbe(AEMController controller, ResponseCacheFilter cacheFilter) {
+            this.controller = controller;
+            this.cacheFilter = cacheFilter;
+        }
+
+        @EventListener
+        @Order(0)
+        public void onRangeReloaded(RangeReloadedEvent event) {
+            if (event.getRange().getMin() > 5) {
+                assertThrows(InvalidRequestException.class, () -> controller.convertToRomanNumeral("5", null));
+                generations.add(cacheFilter.getCache().generation());
+            }
+        }
+    }
+
 }
\ No newline at end of file
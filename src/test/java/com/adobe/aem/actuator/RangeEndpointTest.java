@@ -0,0 +1,53 @@
+package com.adobe.aem.actuator;
+
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.service.RangeReloadedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeEndpointTest {
+
+    private final AEMService service = new AEMService(1, 3999);
+    private final List<Object> events = new ArrayList<>();
+    private final RangeEndpoint endpoint = new RangeEndpoint(1, 3999, service, events::add);
+
+    @Test
+    void testReload() {
+        Object table = service.getTable();
+        assertEquals(new NumeralRange(1, 3999), endpoint.range());
+
+        assertEquals(new NumeralRange(10, 100), endpoint.reload(10, 100));
+
+        assertEquals(new NumeralRange(10, 100), endpoint.range());
+        // the table was rebuilt for the new range and swapped in
+        assertNotSame(table, service.getTable());
+        assertEquals(91, service.getTable().size());
+        assertNull(service.getTable().get(9));
+        assertEquals("X", service.getTable().get(10));
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof RangeReloadedEvent);
+        assertEquals(new NumeralRange(10, 100), ((RangeReloadedEvent) events.get(0)).getRange());
+    }
+
+    @Test
+    void testReload_Invalid() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.reload(0, 100));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.reload(1, 4000));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.reload(100, 10));
+        // nothing changed
+        assertEquals(new NumeralRange(1, 3999), endpoint.range());
+        assertEquals(3999, service.getTable().size());
+        assertTrue(events.isEmpty());
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.adobe.aem.cache;
+
+import com.adobe.aem.ratelimit.RateLimitInterceptor;
+import com.adobe.aem.ratelimit.TokenBucketLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCoalescingFilterTest {
+
+    private static final int REQUESTS = 8;
+    // larger than the default maximum size of a cached response, it is shared anyway
+    private static final byte[] RANGE = new byte[300_000];
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // holds range requests in the controller until released
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void testDoFilter_CoalescesConcurrentIdenticalRequests() throws Exception {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(10_000, null, registry);
+        List<MockHttpServletResponse> responses = performConcurrently(filter);
+
+        for (MockHttpServletResponse response : responses) {
+            assertEquals(200, response.getStatus());
+            assertEquals("application/json", response.getContentType());
+            assertEquals("3", response.getHeader("X-Total-Count"));
+            assertArrayEquals(RANGE, response.getContentAsByteArray());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, registry.get("romannumeral.coalescing.requests").tag("result", "computed").counter().count());
+        assertEquals(REQUESTS - 1,
+                registry.get("romannumeral.coalescing.requests").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void testDoFilter_CoalescedRequestsPayTheRateLimit() throws Exception {
+        // 4 tokens and nothing refilled while the test runs, the range costs a token
+        RateLimitInterceptor rateLimit =
+                new RateLimitInterceptor(new TokenBucketLimiter(0.001, 4, 16), 4, 100, 3999, "", registry);
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(10_000, rateLimit, registry);
+        performConcurrently(filter);
+
+        // the servlet stands for the controller, so the 3 requests without a token reach it instead of the limiter
+        assertEquals(1 + (REQUESTS - 1 - 4), calls.get());
+        assertEquals(4, registry.get("romannumeral.ratelimit.requests").tags("type", "range", "result", "allowed")
+                .counter().count());
+    }
+
+    @Test
+    void testDoFilter_SkipsErrorsAndOtherPaths() throws Exception {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(10_000, null, registry);
+        release.countDown();
+        MockHttpServletResponse error = perform(filter, get("/romannumeral", "query=abc"));
+        perform(filter, get("/romannumeral/stream", "min=1&max=5"));
+
+        assertEquals(2, calls.get());
+        assertEquals(400, error.getStatus());
+        assertEquals("{\"message\":\"Query must be an integer\"}", error.getContentAsString());
+        assertEquals(1, registry.get("romannumeral.coalescing.requests").tag("result", "computed").counter().count());
+    }
+
+    /**
+     * Send identical range requests at the same time, releasing the controller once every other request waits for the
+     * response of the request in it.
+     *
+     * @param filter the filter the requests go through
+     * @return List the responses
+     */
+    private List<MockHttpServletResponse> performConcurrently(RequestCoalescingFilter filter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> perform(filter, get("/romannumeral", "min=1&max=3"))));
+            }
+            SingleFlightTest.awaitWaiting(filter.getFlights(), REQUESTS - 1);
+            release.countDown();
+
+            List<MockHttpServletResponse> responses = new ArrayList<>();
+            for (Future<MockHttpServletResponse> future : futures) {
+                responses.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MockHttpServletRequest get(String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(query);
+        for (String parameter : query.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            request.addParameter(pair[0], pair[1]);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse perform(RequestCoalescingFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new ConversionServlet(), filter).doFilter(request, response);
+        return response;
+    }
+
+    private class ConversionServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            calls.incrementAndGet();
+            response.setContentType("application/json");
+            if (request.getQueryString().contains("abc")) {
+                response.setStatus(400);
+                response.getWriter().write("{\"message\":\"Query must be an integer\"}");
+                return;
+            }
+            response.addHeader("X-Total-Count", "3");
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.getOutputStream().write(RANGE);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.adobe.aem.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheFilterTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(64 * 1024, 1024, 3600,
+            new SimpleMeterRegistry());
+
+    @Test
+    void testDoFilter_CachesSuccessfulResponse() throws Exception {
+        MockHttpServletResponse first = perform(get("/romannumeral", "query=5"));
+        MockHttpServletResponse second = perform(get("/romannumeral", "query=5"));
+
+        assertEquals(1, calls.get());
+        assertEquals(200, second.getStatus());
+        assertEquals("{\"output\":\"V\",\"input\":\"5\"}", second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals("3", second.getHeader("X-Total-Count"));
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertEquals("public, max-age=3600", second.getHeader("Cache-Control"));
+        assertEquals("Accept", second.getHeader("Vary"));
+    }
+
+    @Test
+    void testDoFilter_NotModified() throws Exception {
+        String etag = perform(get("/romannumeral", "query=5")).getHeader("ETag");
+        MockHttpServletRequest request = get("/romannumeral", "query=5");
+        request.addHeader("If-None-Match", "W/\"other\", " + etag);
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        assertEquals(etag, response.getHeader("ETag"));
+    }
+
+    @Test
+    void testDoFilter_RevalidatesWithoutMaxAge() throws Exception {
+        ResponseCacheFilter revalidating = new ResponseCacheFilter(64 * 1024, 1024, 0, new SimpleMeterRegistry());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new ConversionServlet(), revalidating).doFilter(get("/romannumeral", "query=5"), response);
+        assertEquals("public, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testDoFilter_KeyedByValidatedParams() throws Exception {
+        perform(get("/romannumeral", "min=1&max=3"));
+        perform(get("/romannumeral", "max=003&min= 1&notation=Standard&unknown=x"));
+        perform(get("/romannumeral", "query=5"));
+        perform(get("/romannumeral", "query=6"));
+        perform(get("/romannumeral", "query=5&notation=vinculum"));
+        perform(get("/romannumeral", "min=1&max=3&offset=0"));
+        perform(get("/romannumeral", "min=1&max=3&offset=1&limit=02"));
+        perform(get("/romannumeral", "limit=2&min=1&max=3&offset= 1"));
+        assertEquals(5, calls.get());
+        // the query of a single conversion is echoed in the response, so it is kept as sent
+        perform(get("/romannumeral", "query=05"));
+        assertEquals(6, calls.get());
+    }
+
+    @Test
+    void testDoFilter_KeyedByNegotiatedMediaType() throws Exception {
+        perform(get("/romannumeral", "query=5"));
+        perform(get("/romannumeral", "query=5", "*/*"));
+        perform(get("/romannumeral", "query=5", "application/json"));
+        perform(get("/romannumeral", "query=5", "text/html;q=0.9, application/*"));
+        assertEquals(1, calls.get());
+        // a concrete type with parameters is written with them
+        perform(get("/romannumeral", "query=5", "application/json;charset=UTF-8"));
+        assertEquals(2, calls.get());
+        perform(get("/romannumeral", "query=5", "application/x-romannumeral"));
+        perform(get("/romannumeral", "query=5", "application/json;q=0.5, application/x-romannumeral"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testDoFilter_SkipsErrorsAndOtherPaths() throws Exception {
+        perform(get("/romannumeral", "query=abc"));
+        MockHttpServletResponse error = perform(get("/romannumeral", "query=abc"));
+        perform(get("/romannumeral/stream", "min=1&max=5"));
+        MockHttpServletResponse stream = perform(get("/romannumeral/stream", "min=1&max=5"));
+
+        assertEquals(4, calls.get());
+        assertEquals(400, error.getStatus());
+        assertNull(error.getHeader("ETag"));
+        assertNull(stream.getHeader("ETag"));
+        assertEquals(0, filter.getCache().size());
+    }
+
+    private static MockHttpServletRequest get(String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(query);
+        for (String param : query.split("&")) {
+            String[] pair = param.split("=", 2);
+            request.addParameter(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest get(String path, String query, String accept) {
+        MockHttpServletRequest request = get(path, query);
+        request.addHeader("Accept", accept);
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new ConversionServlet(), filter).doFilter(request, response);
+        return response;
+    }
+
+    private class ConversionServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            calls.incrementAndGet();
+            response.setContentType("application/json");
+            if (request.getQueryString().contains("abc")) {
+                response.setStatus(400);
+                response.getWriter().write("{\"message\":\"Query must be an integer\"}");
+                return;
+            }
+            response.addHeader("X-Total-Count", "3");
+            response.getWriter().write("{\"output\":\"V\",\"input\":\"5\"}");
+        }
+    }
+
+}
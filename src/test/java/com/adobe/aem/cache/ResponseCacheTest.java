@@ -0,0 +1,100 @@
+package com.adobe.aem.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    // the weight of a response of 4 bytes under a key of one letter
+    private static final long WEIGHT = ResponseCache.weight("a", entry(4));
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResponseCache cache = new ResponseCache(2 * WEIGHT + WEIGHT / 2, 64, registry);
+        cache.put("a", entry(4));
+        cache.put("b", entry(4));
+        // reading a makes b the least recently used
+        assertNotNull(cache.get("a"));
+        cache.put("c", entry(4));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(2 * WEIGHT, cache.bytes());
+        assertEquals(1, registry.get("romannumeral.cache.evictions").counter().count());
+        assertEquals(3, registry.get("romannumeral.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("romannumeral.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testPut_Replace() {
+        ResponseCache cache = new ResponseCache(4 * WEIGHT, 64, new SimpleMeterRegistry());
+        cache.put("a", entry(4));
+        cache.put("a", entry(6));
+        assertEquals(1, cache.size());
+        assertEquals(WEIGHT + 2, cache.bytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    void testPut_CountsKeysAndHeaders() {
+        ResponseCache.Entry entry = new ResponseCache.Entry(new byte[4], "\"etag\"", "application/json",
+                Collections.singletonMap("X-Total-Count", Collections.singletonList("3")));
+        assertEquals(4 + 2 * (1 + 6 + 16 + 13 + 1) + ResponseCache.ENTRY_OVERHEAD_BYTES,
+                ResponseCache.weight("a", entry));
+
+        // small responses are bounded by their overhead, not only by their bodies
+        ResponseCache cache = new ResponseCache(10 * WEIGHT, 64, new SimpleMeterRegistry());
+        for (int i = 0; i < 100; i++) {
+            cache.put(String.valueOf(i), entry(1));
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.bytes() <= 10 * WEIGHT);
+    }
+
+    @Test
+    void testPut_Segmented() {
+        // 16 segments, each bounded by its share of the total size
+        long maxBytes = 16 * 4 * (1024 + ResponseCache.ENTRY_OVERHEAD_BYTES);
+        ResponseCache cache = new ResponseCache(maxBytes, 1024, new SimpleMeterRegistry());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(cache.put("/romannumeral?query=" + i, entry(64)));
+        }
+        assertTrue(cache.bytes() <= maxBytes);
+        assertTrue(cache.size() > 16);
+        assertNotNull(cache.get("/romannumeral?query=999"));
+        // a response larger than a segment is not cached
+        assertFalse(cache.put("large", entry((int) (maxBytes / 16))));
+        assertNull(cache.get("large"));
+    }
+
+    @Test
+    void testPut_SkippedAfterClear() {
+        ResponseCache cache = new ResponseCache(10 * WEIGHT, 64, new SimpleMeterRegistry());
+        long generation = cache.generation();
+        // the range was reloaded while the response was computed
+        cache.clear();
+        assertFalse(cache.put("a", entry(4), generation));
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("a", entry(4), cache.generation()));
+        assertNotNull(cache.get("a"));
+    }
+
+    private static ResponseCache.Entry entry(int size) {
+        return new ResponseCache.Entry(new byte[size], "\"etag\"", "application/json", Collections.emptyMap());
+    }
+
+}
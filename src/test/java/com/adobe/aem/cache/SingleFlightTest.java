@@ -0,0 +1,166 @@
+package com.adobe.aem.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Object> flights = new SingleFlight<>("test", 10_000, registry);
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flights.execute("1-3999", () -> {
+                    computations.incrementAndGet();
+                    release.await();
+                    return new Object();
+                })));
+            }
+            // the computation only finishes once every other caller is waiting for its result
+            awaitWaiting(flights, CALLERS - 1);
+            release.countDown();
+
+            Object result = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> future : results) {
+                assertSame(result, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, count("computed"));
+        assertEquals(CALLERS - 1, count("coalesced"));
+        assertEquals(0, flights.size());
+    }
+
+    @Test
+    void testExecute_SequentialCallersComputeAgain() throws Exception {
+        Object first = flights.execute("1-3999", () -> computations.incrementAndGet());
+        Object second = flights.execute("1-3999", () -> computations.incrementAndGet());
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(2, count("computed"));
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void testExecute_FailureIsNotShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> failing = executor.submit(() -> flights.execute("1-3999", () -> {
+                started.countDown();
+                release.await();
+                throw new IOException("Broken pipe");
+            }));
+            started.await();
+            Future<Object> waiting = executor.submit(() -> flights.execute("1-3999", () -> "recomputed"));
+            awaitWaiting(flights, 1);
+            release.countDown();
+
+            assertEquals("recomputed", waiting.get(10, TimeUnit.SECONDS));
+            assertThrows(Exception.class, () -> failing.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, count("computed"));
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void testExecute_NullIsNotShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> unshared = executor.submit(() -> flights.execute("1-3999", () -> {
+                started.countDown();
+                release.await();
+                return null;
+            }));
+            started.await();
+            Future<Object> waiting = executor.submit(() -> flights.execute("1-3999", () -> "recomputed"));
+            awaitWaiting(flights, 1);
+            release.countDown();
+
+            assertEquals("recomputed", waiting.get(10, TimeUnit.SECONDS));
+            assertNull(unshared.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        // the waiting caller ran its own computation, it is not counted as coalesced
+        assertEquals(2, count("computed"));
+        assertEquals(0, count("coalesced"));
+        assertEquals(0, flights.waiting());
+    }
+
+    @Test
+    void testExecute_WaitIsBounded() throws Exception {
+        SingleFlight<String, Object> bounded = new SingleFlight<>("bounded", 50, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> slow = executor.submit(() -> bounded.execute("1-3999", () -> {
+                started.countDown();
+                release.await();
+                return "slow";
+            }));
+            started.await();
+            // the slow computation is still running when this caller gives up waiting for it
+            assertEquals("own", bounded.execute("1-3999", () -> "own"));
+            release.countDown();
+            assertEquals("slow", slow.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, registry.get("romannumeral.coalescing.requests").tag("name", "bounded")
+                .tag("result", "computed").counter().count());
+    }
+
+    private double count(String result) {
+        return registry.get("romannumeral.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    /**
+     * Wait until callers are waiting for the computation in flight, which the tests only let finish afterwards. The
+     * callers are counted by SingleFlight once they have found the computation, so none of them can still start its own.
+     *
+     * @param flights the computations
+     * @param expected the number of waiting callers
+     */
+    static void awaitWaiting(SingleFlight<?, ?> flights, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (flights.waiting() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Callers did not all wait in time");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -1,30 +1,59 @@
 package com.adobe.aem.controller;
 
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Notation;
 import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.NumeralRange;
+import com.adobe.aem.domain.RomanNumeral;
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.exception.TooManyRequestsException;
 import com.adobe.aem.service.AEMService;
-import net.minidev.json.JSONObject;
+import com.adobe.aem.service.RangeReloadedEvent;
+import com.adobe.aem.util.NumeralBinaryCodec;
+import com.adobe.aem.util.RequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(AEMController.class)
+// the rate limit is off by default, it is turned on to check the 429 response, with buckets that do not refill
+// during the test so the response does not depend on how fast the requests are made
+@WebMvcTest(value = AEMController.class, properties = {"romannumeral.ratelimit.enabled=true",
+        "romannumeral.ratelimit.tokens-per-second=0.001"})
+@Import({RequestValidator.class, SimpleMeterRegistry.class})
 class AEMControllerTest {
 
     @Autowired
@@ -33,6 +62,9 @@ class AEMControllerTest {
     @MockBean
     private AEMService service;
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Test
     void testIndex() throws Exception {
         String expected = "Adobe & AEM Engineering Test.<br>GET http://localhost:8080/romannumeral?query={integer}";
@@ -42,42 +74,144 @@ class AEMControllerTest {
 
     @Test
     void testConvertToRomanNumeral_HappyPath() throws Exception {
-        when(service.convert("5", 1, 3999)).thenReturn("V");
-        String expected = "{\"output\":\"V\",\"input\":\"5\"}";
+        when(service.convert(5, 1, 3999, Notation.STANDARD)).thenReturn("V");
+        String expected = "{\"input\":\"5\",\"output\":\"V\"}";
         mockMvc.perform(get("/romannumeral?query=5")).andDo(print()).andExpect(status().isOk())
                 .andExpect(content().string(equalTo(expected)));
     }
 
     @Test
     void testConvertToRomanNumeral_HappyPathWithSpaces() throws Exception {
-        when(service.convert("3999", 1, 3999)).thenReturn("MMMCMXCIX");
-        String expected = "{\"output\":\"MMMCMXCIX\",\"input\":\" 3999 \"}";
+        when(service.convert(3999, 1, 3999, Notation.STANDARD)).thenReturn("MMMCMXCIX");
+        String expected = "{\"input\":\" 3999 \",\"output\":\"MMMCMXCIX\"}";
         mockMvc.perform(get("/romannumeral?query= 3999 ")).andDo(print()).andExpect(status().isOk())
                 .andExpect(content().string(equalTo(expected)));
     }
 
     @Test
     void testConvertToRomanNumeral_EmptyQuery() throws Exception {
-        String expected = "400 BAD_REQUEST \"Query must contain a value\"";
         mockMvc.perform(get("/romannumeral?query=   ")).andDo(print()).andExpect(status().isBadRequest())
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResponseStatusException))
-                .andExpect(result -> assertEquals(expected, result.getResolvedException().getMessage()));
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Query must contain a value"));
     }
 
     @Test
     void testConvertToRomanNumeral_OutOfRange() throws Exception {
-        String expected = "400 BAD_REQUEST \"Query must be within range of 1-3999\"";
         mockMvc.perform(get("/romannumeral?query=4000")).andDo(print()).andExpect(status().isBadRequest())
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResponseStatusException))
-                .andExpect(result -> assertEquals(expected, result.getResolvedException().getMessage()));
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Query must be within range of 1-3999"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_ReloadedRange() throws Exception {
+        when(service.convert(50, 10, 100, Notation.STANDARD)).thenReturn("L");
+        publisher.publishEvent(new RangeReloadedEvent(this, new NumeralRange(10, 100)));
+        try {
+            mockMvc.perform(get("/romannumeral?query=50")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.output").value("L"));
+            mockMvc.perform(get("/romannumeral?query=500")).andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Query must be within range of 10-100"));
+        } finally {
+            publisher.publishEvent(new RangeReloadedEvent(this, new NumeralRange(1, 3999)));
+        }
     }
 
     @Test
     void testConvertToRomanNumeral_NonInteger() throws Exception {
-        String expected = "400 BAD_REQUEST \"Query must be an integer\"";
         mockMvc.perform(get("/romannumeral?query=abc")).andDo(print()).andExpect(status().isBadRequest())
-                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResponseStatusException))
-                .andExpect(result -> assertEquals(expected, result.getResolvedException().getMessage()));
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Query must be an integer"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_MissingQuery() throws Exception {
+        mockMvc.perform(get("/romannumeral")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Query must contain a value"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Overflow() throws Exception {
+        mockMvc.perform(get("/romannumeral?query=99999999999")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Query must be within range of 1-3999"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Vinculum() throws Exception {
+        when(service.convert(5000, 1, 1000000000, Notation.VINCULUM)).thenReturn("V\u0305");
+        String expected = "{\"input\":\"5000\",\"output\":\"V\u0305\"}";
+        // JSON is UTF-8 regardless of the charset of the content type
+        mockMvc.perform(get("/romannumeral?query=5000&notation=vinculum")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().bytes(expected.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_UnknownNotation() throws Exception {
+        mockMvc.perform(get("/romannumeral?query=5000&notation=apostrophus")).andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Notation must be one of standard, vinculum, parentheses"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_ExtendedRangePaged() throws Exception {
+        List<Numeral> numeralList = new ArrayList<>();
+        numeralList.add(new Numeral("1", "I"));
+        when(service.convert(1, 3999, 1, 1000000000, Notation.PARENTHESES)).thenReturn(new Conversions(1, numeralList));
+        mockMvc.perform(get("/romannumeral?min=1&max=1000000&notation=parentheses")).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1000000"))
+                .andExpect(header().string("Link",
+                        "</romannumeral?min=1&max=1000000&notation=parentheses&offset=3999&limit=3999>; rel=\"next\""));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_Page() throws Exception {
+        List<Numeral> numeralList = new ArrayList<>();
+        numeralList.add(new Numeral("20", "XX"));
+        numeralList.add(new Numeral("21", "XXI"));
+        when(service.convert(20, 21, 1, 3999, Notation.STANDARD)).thenReturn(new Conversions(20, numeralList));
+        String expected = "{\"conversions\":[{\"input\":\"20\",\"output\":\"XX\"},{\"input\":\"21\",\"output\":\"XXI\"}]}";
+        mockMvc.perform(get("/romannumeral?min=10&max=25&offset=10&limit=2")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(equalTo(expected)))
+                .andExpect(header().string("X-Total-Count", "16"))
+                .andExpect(header().string("Link", "</romannumeral?min=10&max=25&offset=8&limit=2>; rel=\"prev\", "
+                        + "</romannumeral?min=10&max=25&offset=12&limit=2>; rel=\"next\""));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_LastPage() throws Exception {
+        when(service.convert(24, 25, 1, 3999, Notation.STANDARD))
+                .thenReturn(new Conversions(24, Arrays.asList(new Numeral("24", "XXIV"), new Numeral("25", "XXV"))));
+        mockMvc.perform(get("/romannumeral?min=10&max=25&offset=14&limit=5")).andDo(print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$.conversions.length()").value(2))
+                .andExpect(header().string("Link", "</romannumeral?min=10&max=25&offset=9&limit=5>; rel=\"prev\""));
+        // beyond the end of the range the page is empty
+        mockMvc.perform(get("/romannumeral?min=10&max=25&offset=100")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(equalTo("{\"conversions\":[]}")));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_LinksValidatedParams() throws Exception {
+        when(service.convert(20, 21, 1, 3999, Notation.STANDARD))
+                .thenReturn(new Conversions(20, Arrays.asList(new Numeral("20", "XX"), new Numeral("21", "XXI"))));
+        mockMvc.perform(get("/romannumeral?limit=02&max= 25&unknown=x&min=010&offset=10&notation=Standard"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(header().string("Link", "</romannumeral?min=10&max=25&offset=8&limit=2>; rel=\"prev\", "
+                        + "</romannumeral?min=10&max=25&offset=12&limit=2>; rel=\"next\""));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_LimitTooLarge() throws Exception {
+        mockMvc.perform(get("/romannumeral?min=1&max=3999&limit=4000")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("limit must be within range of 1-3999"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_InvalidOffset() throws Exception {
+        mockMvc.perform(get("/romannumeral?min=1&max=3999&offset=-1")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("offset must be an integer"));
     }
 
     @Test
@@ -90,16 +224,150 @@ class AEMControllerTest {
 
     @Test
     void testConvertToRomanNumeral_Range_HappyPath() throws Exception {
-        JSONObject jsonObject = new JSONObject();
         List<Numeral> numeralList = new ArrayList<>();
         numeralList.add(new Numeral("5", "V"));
         numeralList.add(new Numeral("6", "VI"));
         numeralList.add(new Numeral("7", "VII"));
-        jsonObject.put("conversions",numeralList);
 
-        when(service.convert("5","7",1, 3999)).thenReturn(jsonObject);
+        when(service.convert(5, 7, 1, 3999, Notation.STANDARD)).thenReturn(new Conversions(5, numeralList));
         String expected = "{\"conversions\":[{\"input\":\"5\",\"output\":\"V\"},{\"input\":\"6\",\"output\":\"VI\"},{\"input\":\"7\",\"output\":\"VII\"}]}";
         mockMvc.perform(get("/romannumeral?min=5&max=7")).andDo(print()).andExpect(status().isOk())
                 .andExpect(content().string(equalTo(expected)));
     }
+
+    @Test
+    void testConvertToRomanNumeral_Binary() throws Exception {
+        when(service.convert(5, 1, 3999, Notation.STANDARD)).thenReturn("V");
+        mockMvc.perform(get("/romannumeral?query=5").accept(NumeralBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(NumeralBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(content().bytes(NumeralBinaryCodec.encode(new Numeral("5", "V"))));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_Range_Binary() throws Exception {
+        Conversions conversions = new Conversions(8, Arrays.asList(new Numeral("8", "VIII"), new Numeral("9", "IX")));
+        when(service.convert(8, 9, 1, 3999, Notation.STANDARD)).thenReturn(conversions);
+        MvcResult mvcResult = mockMvc.perform(get("/romannumeral?min=8&max=9")
+                .accept(NumeralBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andDo(print()).andExpect(status().isOk()).andReturn();
+        assertEquals(conversions, NumeralBinaryCodec.decode(mvcResult.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_BinaryError() throws Exception {
+        // errors stay JSON
+        mockMvc.perform(get("/romannumeral?query=abc").accept(NumeralBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Query must be an integer"));
+    }
+
+    @Test
+    void testConvertToRomanNumeral_TooManyRequests() throws Exception {
+        // the bucket of each client holds 200 tokens and a stream of 1-3999 costs 40, the other tests use another client
+        MockHttpServletRequestBuilder request = get("/romannumeral/stream?min=1&max=3999").with(r -> {
+            r.setRemoteAddr("10.0.0.1");
+            return r;
+        });
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(request);
+        }
+        mockMvc.perform(request).andDo(print()).andExpect(status().isTooManyRequests())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof TooManyRequestsException))
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value("Too many requests"));
+    }
+
+    @Test
+    void testStreamRomanNumerals_HappyPath() throws Exception {
+        String expected = "{\"conversions\":[{\"input\":\"5\",\"output\":\"V\"},{\"input\":\"6\",\"output\":\"VI\"}]}";
+        doAnswer(invocation -> {
+            invocation.getArgument(5, OutputStream.class).write(expected.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(service).convert(eq(5), eq(6), eq(1), eq(3999), eq(Notation.STANDARD), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/romannumeral/stream?min=5&max=6"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(equalTo(expected)));
+    }
+
+    @Test
+    void testStreamRomanNumerals_OutOfRange() throws Exception {
+        mockMvc.perform(get("/romannumeral/stream?min=1&max=4000")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Query must be within range of 1-3999"));
+    }
+
+    @Test
+    void testParseRomanNumeral_HappyPath() throws Exception {
+        when(service.parse("MCMXCIV", 1, 3999)).thenReturn(1994);
+        String expected = "{\"input\":\"MCMXCIV\",\"output\":\"1994\"}";
+        mockMvc.perform(get("/romannumeral/parse?query=MCMXCIV")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().string(equalTo(expected)));
+    }
+
+    @Test
+    void testParseRomanNumeral_Invalid() throws Exception {
+        when(service.parse("IIII", 1, 3999)).thenThrow(new InvalidRequestException("Query must be a Roman numeral"));
+        mockMvc.perform(get("/romannumeral/parse?query=IIII")).andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof InvalidRequestException))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Query must be a Roman numeral"))
+                .andExpect(jsonPath("$.path").value("/romannumeral/parse"));
+    }
+
+    @Test
+    void testAddRomanNumerals_HappyPath() throws Exception {
+        when(service.add("XII", "IX", 1, 3999)).thenReturn(new RomanNumeral(21, "XXI"));
+        String expected = "{\"first\":\"XII\",\"second\":\"IX\",\"output\":\"XXI\",\"value\":21}";
+        mockMvc.perform(get("/romannumeral/add?first=XII&second= IX ")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(equalTo(expected)));
+    }
+
+    @Test
+    void testSubtractRomanNumerals_OutOfRange() throws Exception {
+        when(service.subtract("IX", "XII", 1, 3999))
+                .thenThrow(new InvalidRequestException("Result must be within range of 1-3999"));
+        mockMvc.perform(get("/romannumeral/subtract?first=IX&second=XII")).andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Result must be within range of 1-3999"))
+                .andExpect(jsonPath("$.path").value("/romannumeral/subtract"));
+    }
+
+    @Test
+    void testCompareRomanNumerals_HappyPath() throws Exception {
+        when(service.compare("IX", "XII", 1, 3999)).thenReturn(-1);
+        mockMvc.perform(get("/romannumeral/compare?first=IX&second=XII")).andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(equalTo("-1")));
+    }
+
+    @Test
+    void testConvertBatch_HappyPath() throws Exception {
+        String expected = "{\"conversions\":[{\"input\":\"5\",\"output\":\"V\"}]}";
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(expected.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(service).convertBatch(any(InputStream.class), any(OutputStream.class), eq(1), eq(3999), eq(100000));
+
+        mockMvc.perform(post("/romannumeral/batch").contentType(MediaType.APPLICATION_JSON).content("[\"5\"]"))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(equalTo(expected)));
+    }
+
+    @Test
+    void testConvertBatch_NotAnArray() throws Exception {
+        doThrow(new InvalidRequestException("Batch must be a JSON array")).when(service)
+                .convertBatch(any(InputStream.class), any(OutputStream.class), eq(1), eq(3999), eq(100000));
+
+        mockMvc.perform(post("/romannumeral/batch").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andDo(print()).andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must be a JSON array"));
+    }
 }
\ No newline at end of file
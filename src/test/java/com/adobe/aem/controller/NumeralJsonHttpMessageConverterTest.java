@@ -0,0 +1,99 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Calculation;
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumeralJsonHttpMessageConverterTest {
+
+    private final NumeralJsonHttpMessageConverter converter = new NumeralJsonHttpMessageConverter();
+
+    @Test
+    void testWrite_Numeral() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(new Numeral("5", "V"), MediaType.APPLICATION_JSON, outputMessage);
+        assertEquals("{\"input\":\"5\",\"output\":\"V\"}", outputMessage.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+        assertEquals(26, outputMessage.getHeaders().getContentLength());
+    }
+
+    @Test
+    void testWrite_Calculation() {
+        Calculation sum = new Calculation("MDCCC", "MMLXXXVIII", new RomanNumeral(3888, "MMMDCCCLXXXVIII"));
+        assertEquals("{\"first\":\"MDCCC\",\"second\":\"MMLXXXVIII\",\"output\":\"MMMDCCCLXXXVIII\",\"value\":3888}",
+                new String(NumeralJsonHttpMessageConverter.toJson(sum), StandardCharsets.UTF_8));
+        Calculation difference = new Calculation("II", "I", new RomanNumeral(1, "I"));
+        assertEquals("{\"first\":\"II\",\"second\":\"I\",\"output\":\"I\",\"value\":1}",
+                new String(NumeralJsonHttpMessageConverter.toJson(difference), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWrite_Conversions() {
+        Conversions conversions = new Conversions(1, Arrays.asList(new Numeral("1", "I"), new Numeral("2", "II")));
+        assertEquals("{\"conversions\":[{\"input\":\"1\",\"output\":\"I\"},{\"input\":\"2\",\"output\":\"II\"}]}",
+                new String(NumeralJsonHttpMessageConverter.toJson(conversions), StandardCharsets.UTF_8));
+        assertEquals("{\"conversions\":[]}", new String(
+                NumeralJsonHttpMessageConverter.toJson(new Conversions(1, Collections.emptyList())), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWrite_EscapesLikeJackson() throws Exception {
+        // quotes, backslashes, control characters, overlines and surrogate pairs must round trip
+        String input = " \"MC\\M\"\t\n\u0001 V\u0305 🏛 \uD800";
+        Numeral numeral = new Numeral(input, null);
+        byte[] json = NumeralJsonHttpMessageConverter.toJson(numeral);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(input, objectMapper.readTree(json).get("input").textValue());
+        assertTrue(objectMapper.readTree(json).get("output").isNull());
+    }
+
+    @Test
+    void testWrite_KeepsAtMostOneBufferPerCore() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 1; i <= 3999; i++) {
+                Numeral numeral = new Numeral(String.valueOf(i), "R");
+                results.add(executor.submit(() -> new String(NumeralJsonHttpMessageConverter.toJson(numeral),
+                        StandardCharsets.UTF_8)));
+            }
+            // a buffer is never shared by two responses in flight
+            for (int i = 1; i <= 3999; i++) {
+                assertEquals("{\"input\":\"" + i + "\",\"output\":\"R\"}",
+                        results.get(i - 1).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(NumeralJsonHttpMessageConverter.pooledBuffers() <= Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void testCanReadWrite() {
+        assertTrue(converter.canWrite(Numeral.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(Conversions.class, null));
+        assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Numeral.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(Numeral.class, MediaType.APPLICATION_JSON));
+    }
+
+}
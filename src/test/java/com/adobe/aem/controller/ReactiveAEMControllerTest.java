@@ -0,0 +1,108 @@
+package com.adobe.aem.controller;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.util.RequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveAEMController.class)
+@Import({RequestValidator.class, SimpleMeterRegistry.class})
+class ReactiveAEMControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private AEMService service;
+
+    @Test
+    void testConvertToRomanNumeral_HappyPath() {
+        when(service.convert(5, 1, 3999, Notation.STANDARD)).thenReturn("V");
+        webTestClient.get().uri("/romannumeral?query=5").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"input\":\"5\",\"output\":\"V\"}");
+    }
+
+    @Test
+    void testConvertToRomanNumeral_OutOfRange() {
+        webTestClient.get().uri("/romannumeral?query=4000").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Query must be within range of 1-3999")
+                .jsonPath("$.path").isEqualTo("/romannumeral");
+    }
+
+    @Test
+    void testConvertToRomanNumerals_HappyPath() {
+        when(service.stream(5, 7, 1, 3999, Notation.STANDARD)).thenReturn(Stream.of(
+                new Numeral("5", "V"), new Numeral("6", "VI"), new Numeral("7", "VII")));
+        String expected = "{\"conversions\":[{\"input\":\"5\",\"output\":\"V\"},{\"input\":\"6\",\"output\":\"VI\"},{\"input\":\"7\",\"output\":\"VII\"}]}";
+        webTestClient.get().uri("/romannumeral?min=5&max=7").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(expected);
+    }
+
+    @Test
+    void testConvertToRomanNumerals_Page() {
+        when(service.stream(20, 21, 1, 3999, Notation.STANDARD)).thenReturn(Stream.of(
+                new Numeral("20", "XX"), new Numeral("21", "XXI")));
+        String expected = "{\"conversions\":[{\"input\":\"20\",\"output\":\"XX\"},{\"input\":\"21\",\"output\":\"XXI\"}]}";
+        webTestClient.get().uri("/romannumeral?min=10&max=25&offset=10&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "16")
+                .expectHeader().valueEquals("Link", "</romannumeral?min=10&max=25&offset=8&limit=2>; rel=\"prev\", "
+                        + "</romannumeral?min=10&max=25&offset=12&limit=2>; rel=\"next\"")
+                .expectBody(String.class).isEqualTo(expected);
+        // beyond the end of the range the page is empty
+        webTestClient.get().uri("/romannumeral?min=10&max=25&offset=100").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"conversions\":[]}");
+        webTestClient.get().uri("/romannumeral?min=1&max=3999&limit=4000").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("limit must be within range of 1-3999");
+    }
+
+    @Test
+    void testConvertToRomanNumerals_SpansChunks() {
+        when(service.stream(1, 1000, 1, 3999, Notation.STANDARD)).thenReturn(IntStream.rangeClosed(1, 1000)
+                .mapToObj(i -> new Numeral(String.valueOf(i), "R")));
+        webTestClient.get().uri("/romannumeral/stream?min=1&max=1000").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.conversions.length()").isEqualTo(1000)
+                .jsonPath("$.conversions[999].input").isEqualTo("1000");
+    }
+
+    @Test
+    void testParseRomanNumeral_HappyPath() {
+        when(service.parse("MCMXCIV", 1, 3999)).thenReturn(1994);
+        webTestClient.get().uri("/romannumeral/parse?query=MCMXCIV").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"input\":\"MCMXCIV\",\"output\":\"1994\"}");
+    }
+
+    @Test
+    void testAddRomanNumerals_HappyPath() {
+        when(service.add("XII", "IX", 1, 3999)).thenReturn(new RomanNumeral(21, "XXI"));
+        webTestClient.get().uri("/romannumeral/add?first=XII&second=IX").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"first\":\"XII\",\"second\":\"IX\",\"output\":\"XXI\",\"value\":21}");
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.adobe.aem.export;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.service.AEMService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumeralFileTest {
+
+    private final AEMService service = new AEMService();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWrite_StandardRange() throws IOException {
+        Path file = directory.resolve("numerals.csv");
+        NumeralFileWriter.Result result = new NumeralFileWriter(service).write(1, 3999, Notation.STANDARD, file);
+
+        // 4 digits, a comma, the 15 letters of MMMDCCCLXXXVIII and the newline
+        assertEquals(21, result.getLineWidth());
+        assertEquals(3999, result.getCount());
+        assertEquals(3999L * 21, Files.size(file));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("   1,I              ", lines.get(0));
+        assertEquals("3999,MMMCMXCIX      ", lines.get(3998));
+
+        NumeralFileReader reader = NumeralFileReader.open(file);
+        assertEquals(3999, reader.size());
+        assertEquals(1, reader.getFirst());
+        for (int number = 1; number <= 3999; number++) {
+            Numeral numeral = reader.find(number);
+            assertEquals(String.valueOf(number), numeral.getInteger());
+            assertEquals(service.convert(number, 1, 3999), numeral.getRoman());
+        }
+    }
+
+    @Test
+    void testMaxRomanBytes_MatchesConversions() {
+        int[][] ranges = {{1, 9}, {5, 8}, {1, 3999}, {3990, 4100}, {4000, 4000}, {1, 12_000}, {8_800, 8_900}};
+        int[][] extendedRanges = {{1, 250_000}, {3_990_000, 4_010_000}, {3_500_000, 4_600_000}, {887_000, 889_000}};
+        for (Notation notation : Notation.values()) {
+            for (int[] range : ranges) {
+                assertMaxRomanBytes(range[0], range[1], notation);
+            }
+            for (int[] range : extendedRanges) {
+                if (notation != Notation.STANDARD) {
+                    assertMaxRomanBytes(range[0], range[1], notation);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWrite_AcrossChunksAndSegments() throws IOException {
+        Path file = directory.resolve("vinculum.csv");
+        // chunks of 7 numbers and mappings of 3 lines, so neither lines up with the other or with the range
+        NumeralFileWriter.Result result = new NumeralFileWriter(service, 7).write(3990, 4100, Notation.VINCULUM, file);
+
+        NumeralFileReader reader = NumeralFileReader.open(file, 3L * result.getLineWidth());
+        assertEquals(111, reader.size());
+        for (int number = 3990; number <= 4100; number++) {
+            Numeral numeral = reader.find(number);
+            assertEquals(String.valueOf(number), numeral.getInteger());
+            assertEquals(service.convert(number, 3990, 4100, Notation.VINCULUM), numeral.getRoman());
+        }
+        assertEquals(reader.find(4000), reader.get(10));
+    }
+
+    @Test
+    void testRead_OutOfRange() throws IOException {
+        Path file = directory.resolve("small.csv");
+        new NumeralFileWriter(service).write(10, 20, Notation.STANDARD, file);
+
+        NumeralFileReader reader = NumeralFileReader.open(file);
+        assertNull(reader.find(9));
+        assertNull(reader.find(21));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.get(11));
+    }
+
+    @Test
+    void testWrite_InvalidRange() {
+        Path file = directory.resolve("invalid.csv");
+        NumeralFileWriter writer = new NumeralFileWriter(service);
+        assertThrows(IllegalArgumentException.class, () -> writer.write(0, 10, Notation.STANDARD, file));
+        assertThrows(IllegalArgumentException.class, () -> writer.write(20, 10, Notation.STANDARD, file));
+        assertThrows(IllegalArgumentException.class, () -> new NumeralFileWriter(service, 0));
+    }
+
+    @Test
+    void testOpen_NotAnExportFile() throws IOException {
+        Path file = directory.resolve("other.csv");
+        Files.write(file, "1,I\n10,X\n".getBytes());
+        assertThrows(IOException.class, () -> NumeralFileReader.open(file));
+    }
+
+    private void assertMaxRomanBytes(int from, int to, Notation notation) {
+        int expected = service.stream(from, to, from, to, notation)
+                .mapToInt(numeral -> numeral.getRoman().getBytes(StandardCharsets.UTF_8).length)
+                .max()
+                .orElse(0);
+        assertEquals(expected, NumeralFileWriter.maxRomanBytes(from, to, notation),
+                () -> String.format("%d-%d in the %s notation", from, to, notation));
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.adobe.aem.ratelimit;
+
+import com.adobe.aem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.DispatcherType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // one token per second, so nothing is refilled while the test runs
+    private final RateLimitInterceptor interceptor =
+            new RateLimitInterceptor(new TokenBucketLimiter(1, 10, 16), 10, 100, 3999, "X-Api-Key", registry);
+
+    @Test
+    void testPreHandle_SingleCostsOneToken() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request("/romannumeral", "query", "5"), new MockHttpServletResponse(), null));
+        }
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("/romannumeral", "query", "5"), new MockHttpServletResponse(), null));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(10, registry.get("romannumeral.ratelimit.requests").tags("type", "single", "result", "allowed")
+                .counter().count());
+        assertEquals(1, registry.get("romannumeral.ratelimit.requests").tags("type", "single", "result", "rejected")
+                .counter().count());
+    }
+
+    @Test
+    void testPreHandle_RangeCostsBySize() {
+        // 1-500 costs 5 tokens, so a second range needs the whole bucket back
+        assertTrue(interceptor.preHandle(request("/romannumeral", "min", "1", "max", "500"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("/romannumeral", "min", "1", "max", "500"), new MockHttpServletResponse(), null));
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(
+                request("/romannumeral/stream", "min", "1", "max", "3999"), new MockHttpServletResponse(), null));
+        // the stream costs the full bucket of 10 tokens
+        assertEquals(10, e.getRetryAfterSeconds());
+        // a small page of a range is cheap
+        MockHttpServletRequest page = request("/romannumeral", "min", "1", "max", "3999", "offset", "100", "limit", "10");
+        page.addHeader("X-Api-Key", "other");
+        assertTrue(interceptor.preHandle(page, new MockHttpServletResponse(), null));
+        assertEquals(1, registry.get("romannumeral.ratelimit.requests").tags("type", "stream", "result", "rejected")
+                .counter().count());
+    }
+
+    @Test
+    void testPreHandle_InvalidRangeCostsOneToken() {
+        // parameters that are not digits are sized as 0, the controller rejects them anyway
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request("/romannumeral", "min", "1e3", "max", " -5 "),
+                    new MockHttpServletResponse(), null));
+        }
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(
+                request("/romannumeral", "min", "", "max", "abc"), new MockHttpServletResponse(), null));
+        assertEquals(10, registry.get("romannumeral.ratelimit.requests").tags("type", "range", "result", "allowed")
+                .counter().count());
+    }
+
+    @Test
+    void testPreHandle_BatchCostsByLength() {
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/romannumeral/batch");
+        // up to 450 items of at least two bytes cost 5 tokens
+        batch.setContent(new byte[900]);
+        assertTrue(interceptor.preHandle(batch, new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(batch, new MockHttpServletResponse(), null));
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(batch, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testTryAdmit_TakesTokensWithoutRejecting() {
+        // the 5 tokens of two ranges of 1-500 leave nothing for a third
+        assertTrue(interceptor.tryAdmit(request("/romannumeral", "min", "1", "max", "500")));
+        assertTrue(interceptor.tryAdmit(request("/romannumeral", "min", "1", "max", "500")));
+        assertFalse(interceptor.tryAdmit(request("/romannumeral", "min", "1", "max", "500")));
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("/romannumeral", "query", "5"), new MockHttpServletResponse(), null));
+        assertEquals(2, registry.get("romannumeral.ratelimit.requests").tags("type", "range", "result", "allowed")
+                .counter().count());
+        assertEquals(0, registry.get("romannumeral.ratelimit.requests").tags("type", "range", "result", "rejected")
+                .counter().count());
+    }
+
+    @Test
+    void testPreHandle_AsyncDispatchIsFree() {
+        MockHttpServletRequest stream = request("/romannumeral/stream", "min", "1", "max", "1000");
+        assertTrue(interceptor.preHandle(stream, new MockHttpServletResponse(), null));
+        stream.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(stream, new MockHttpServletResponse(), null));
+        assertEquals(1, registry.get("romannumeral.ratelimit.requests").tags("type", "stream", "result", "allowed")
+                .counter().count());
+    }
+
+    @Test
+    void testPreHandle_ClientKeyHeader() {
+        for (int i = 0; i < 10; i++) {
+            interceptor.preHandle(request("/romannumeral", "query", "5"), new MockHttpServletResponse(), null);
+        }
+        MockHttpServletRequest request = request("/romannumeral", "query", "5");
+        request.addHeader("X-Api-Key", "client");
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest request(String path, String... parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.addParameter(parameters[i], parameters[i + 1]);
+        }
+        return request;
+    }
+
+}
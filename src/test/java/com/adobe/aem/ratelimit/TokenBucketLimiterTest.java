@@ -0,0 +1,53 @@
+package com.adobe.aem.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testTryAcquire_Burst() {
+        // 10 tokens per second, 5 tokens of burst
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 16);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client", 1, SECOND));
+        }
+        // the next token is refilled after 100ms
+        assertEquals(SECOND / 10, limiter.tryAcquire("client", 1, SECOND));
+        assertEquals(0, limiter.tryAcquire("client", 1, SECOND + SECOND / 10));
+        // other clients have their own bucket
+        assertEquals(0, limiter.tryAcquire("other", 5, SECOND));
+    }
+
+    @Test
+    void testTryAcquire_Cost() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 5, 16);
+        assertEquals(0, limiter.tryAcquire("client", 3, SECOND));
+        // 2 of 5 tokens are left, the third is refilled after 100ms
+        assertEquals(SECOND / 10, limiter.tryAcquire("client", 3, SECOND));
+        // costs above the burst are capped, a full bucket admits them
+        assertEquals(0, new TokenBucketLimiter(10, 5, 16).tryAcquire("client", 1000, SECOND));
+    }
+
+    @Test
+    void testTryAcquire_Concurrent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1000, 1);
+        AtomicInteger admitted = new AtomicInteger();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            if (limiter.tryAcquire("client", 1, SECOND) == 0) {
+                admitted.incrementAndGet();
+            }
+        });
+        // exactly the burst is admitted at the same instant, however the updates race
+        assertEquals(1000, admitted.get());
+        assertTrue(limiter.tryAcquire("client", 1, SECOND) > 0);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.adobe.aem.server;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RequestExecutorCustomizerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testParseMode() {
+        assertEquals(RequestExecutorCustomizer.Mode.BOUNDED, RequestExecutorCustomizer.parseMode(" Bounded "));
+        assertThrows(IllegalArgumentException.class, () -> RequestExecutorCustomizer.parseMode("unbounded"));
+    }
+
+    @Test
+    void testCustomize_DefaultKeepsTomcatPool() {
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        new RequestExecutorCustomizer(RequestExecutorCustomizer.Mode.DEFAULT, 0, 10, registry).customize(protocolHandler);
+        verify(protocolHandler, never()).setExecutor(any());
+    }
+
+    @Test
+    void testCustomize_BoundedRejectsWhenQueueIsFull() throws InterruptedException {
+        RequestExecutorCustomizer customizer =
+                new RequestExecutorCustomizer(RequestExecutorCustomizer.Mode.BOUNDED, 1, 1, registry);
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        customizer.customize(protocolHandler);
+        verify(protocolHandler).setExecutor(any(ExecutorService.class));
+
+        ExecutorService executor = customizer.createExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // one request waits in the queue, the next does not fit
+        executor.execute(() -> { });
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, registry.get("romannumeral.executor.rejected").counter().count());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        customizer.destroy();
+    }
+
+    @Test
+    void testCreateExecutor_VirtualNeedsJava21() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new RequestExecutorCustomizer(RequestExecutorCustomizer.Mode.VIRTUAL, 0, 10, registry));
+            assertTrue(e.getMessage().startsWith("romannumeral.executor.mode=virtual needs Java 21 or later"));
+            return;
+        }
+        ExecutorService executor =
+                new RequestExecutorCustomizer(RequestExecutorCustomizer.Mode.VIRTUAL, 0, 10, registry).createExecutor();
+        assertTrue(executor.submit(() -> Thread.currentThread().getClass().getName()).get().contains("Virtual"));
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -1,32 +1,241 @@
 package com.adobe.aem.service;
 
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import com.adobe.aem.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AEMServiceTest {
 
     @Test
     void testConvert() {
         AEMService service = new AEMService();
-        assertEquals("I", service.convert("1", 1, 3999));
-        assertEquals("V", service.convert("5", 1, 3999));
-        assertEquals("XXVII", service.convert("27", 1, 3999));
-        assertEquals("XLV", service.convert("45", 1, 3999));
-        assertEquals("LXXXIX", service.convert("89", 1, 3999));
-        assertEquals("XCI", service.convert("91", 1, 3999));
-        assertEquals("CI", service.convert("101", 1, 3999));
-        assertEquals("CDL", service.convert("450", 1, 3999));
-        assertEquals("DCC", service.convert("700", 1, 3999));
-        assertEquals("CMXL", service.convert("940", 1, 3999));
-        assertEquals("MMMCMXCIX", service.convert("3999", 1, 3999));
-        assertNull(service.convert("0", 1, 3999));
-        assertNull(service.convert("4000", 1, 3999));
-        assertNull(service.convert("-1", 1, 3999));
+        assertEquals("I", service.convert(1, 1, 3999));
+        assertEquals("V", service.convert(5, 1, 3999));
+        assertEquals("XXVII", service.convert(27, 1, 3999));
+        assertEquals("XLV", service.convert(45, 1, 3999));
+        assertEquals("LXXXIX", service.convert(89, 1, 3999));
+        assertEquals("XCI", service.convert(91, 1, 3999));
+        assertEquals("CI", service.convert(101, 1, 3999));
+        assertEquals("CDL", service.convert(450, 1, 3999));
+        assertEquals("DCC", service.convert(700, 1, 3999));
+        assertEquals("CMXL", service.convert(940, 1, 3999));
+        assertEquals("MMMCMXCIX", service.convert(3999, 1, 3999));
+        assertNull(service.convert(0, 1, 3999));
+        assertNull(service.convert(4000, 1, 3999));
+        assertNull(service.convert(-1, 1, 3999));
 
         // for range
-        assertNull(service.convert("0","4000", 1, 3999));
+        assertNull(service.convert(0, 4000, 1, 3999));
+    }
+
+    @Test
+    void testConvert_Range() {
+        AEMService service = new AEMService();
+        Conversions conversions = service.convert(3, 5, 1, 3999);
+        List<Numeral> numeralList = conversions.getConversions();
+        assertEquals(3, numeralList.size());
+        assertEquals(new Numeral("3", "III"), numeralList.get(0));
+        assertEquals(new Numeral("4", "IV"), numeralList.get(1));
+        assertEquals(new Numeral("5", "V"), numeralList.get(2));
+
+        // ranges reference the shared conversions of the table
+        assertSame(numeralList.get(1), service.convert(1, 10, 1, 3999).getConversions().get(3));
+        assertSame(numeralList.get(2), service.stream(5, 5, 1, 3999).findFirst().orElse(null));
+    }
+
+    @Test
+    void testConvert_OutsideTable() {
+        // table only covers 1-10, overridden range must still convert
+        AEMService service = new AEMService(1, 10);
+        assertEquals("X", service.convert(10, 1, 3999));
+        assertEquals("MMMDCCCLXXXVIII", service.convert(3888, 1, 3999));
+
+        Conversions conversions = service.convert(9, 12, 1, 3999);
+        List<Numeral> numeralList = conversions.getConversions();
+        assertEquals(new Numeral("9", "IX"), numeralList.get(0));
+        assertEquals(new Numeral("12", "XII"), numeralList.get(3));
+    }
+
+
+    @Test
+    void testConvert_RangeParallel() {
+        // threshold of 1 converts every range in parallel, table only covers 1-10 so most values are computed
+        AEMService parallelService = new AEMService(1, 10, 1);
+        AEMService sequentialService = new AEMService(1, 3999, Integer.MAX_VALUE);
+        assertEquals(sequentialService.convert(1, 3999, 1, 3999), parallelService.convert(1, 3999, 1, 3999));
+    }
+
+    @Test
+    void testConvert_Stream() throws IOException {
+        AEMService service = new AEMService();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.convert(3, 5, 1, 3999, outputStream);
+        String expected = "{\"conversions\":[{\"input\":\"3\",\"output\":\"III\"},{\"input\":\"4\",\"output\":\"IV\"},{\"input\":\"5\",\"output\":\"V\"}]}";
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testConvert_Extended() {
+        AEMService service = new AEMService();
+        assertEquals("MMMCMXCIX", service.convert(3999, 1, 3999999, Notation.VINCULUM));
+        assertEquals("I\u0305V\u0305", service.convert(4000, 1, 3999999, Notation.VINCULUM));
+        assertEquals("V\u0305I", service.convert(5001, 1, 3999999, Notation.VINCULUM));
+        assertEquals("M\u0305", service.convert(1000000, 1, 3999999, Notation.VINCULUM));
+        assertEquals("(V)I", service.convert(5001, 1, 3999999, Notation.PARENTHESES));
+        assertEquals("(MMMCMXCIX)CMXCIX", service.convert(3999999, 1, 3999999, Notation.PARENTHESES));
+        // thousands above 3999 are extended again
+        assertEquals("((IV))", AEMService.toRoman(4000000, Notation.PARENTHESES));
+        assertEquals("I\u0305\u0305V\u0305\u0305", AEMService.toRoman(4000000, Notation.VINCULUM));
+        assertEquals("((MMCXLVII)CDLXXXIII)DCXLVII", AEMService.toRoman(Integer.MAX_VALUE, Notation.PARENTHESES));
+        // standard notation keeps repeating M
+        assertEquals("MMMMI", AEMService.toRoman(4001, Notation.STANDARD));
+    }
+
+    @Test
+    void testConvert_ExtendedStream() throws IOException {
+        AEMService service = new AEMService();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.convert(3999, 4000, 1, 3999999, Notation.PARENTHESES, outputStream);
+        String expected = "{\"conversions\":[{\"input\":\"3999\",\"output\":\"MMMCMXCIX\"},{\"input\":\"4000\",\"output\":\"(IV)\"}]}";
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testParse() {
+        AEMService service = new AEMService();
+        assertEquals(1, service.parse("I", 1, 3999));
+        assertEquals(4, service.parse("IV", 1, 3999));
+        assertEquals(49, service.parse("XLIX", 1, 3999));
+        assertEquals(1994, service.parse("MCMXCIV", 1, 3999));
+        assertEquals(3888, service.parse("MMMDCCCLXXXVIII", 1, 3999));
+        assertEquals(3999, service.parse("MMMCMXCIX", 1, 3999));
+
+        // every numeral in range parses back to its number
+        for (int i = 1; i <= 3999; i++) {
+            assertEquals(i, service.parse(service.convert(i, 1, 3999), 1, 3999));
+        }
+    }
+
+    @Test
+    void testParse_NonCanonical() {
+        AEMService service = new AEMService();
+        for (String roman : new String[]{"", "IIII", "VX", "IC", "XM", "VV", "DD", "MMMM", "IXI", "IVI", "CMM", "iv", "X V"}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> service.parse(roman, 1, 3999));
+            assertEquals("Query must be a Roman numeral", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        }
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> service.parse("XI", 1, 10));
+        assertEquals("Query must be within range of 1-10", e.getMessage());
+    }
+
+
+    @Test
+    void testArithmetic() {
+        AEMService service = new AEMService();
+        assertSame(service.getTable().getRomanNumeral(21), service.add("XII", "IX", 1, 3999));
+        assertEquals("MMMCMXCIX", service.add("MM", "MCMXCIX", 1, 3999).toString());
+        assertSame(service.getTable().getRomanNumeral(3), service.subtract("XII", "IX", 1, 3999));
+        assertEquals(-1, service.compare("IX", "XII", 1, 3999));
+        assertEquals(0, service.compare("XII", "XII", 1, 3999));
+        assertEquals(1, service.compare("MMM", "I", 1, 3999));
+
+        // results are checked against the same range as the Roman numerals
+        InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                () -> service.add("MM", "MM", 1, 3999));
+        assertEquals("Result must be within range of 1-3999", e.getMessage());
+        e = assertThrows(InvalidRequestException.class, () -> service.subtract("IX", "IX", 1, 3999));
+        assertEquals("Result must be within range of 1-3999", e.getMessage());
+        e = assertThrows(InvalidRequestException.class, () -> service.add("V", "VI", 1, 10));
+        assertEquals("Result must be within range of 1-10", e.getMessage());
+        e = assertThrows(InvalidRequestException.class, () -> service.compare("IIII", "I", 1, 3999));
+        assertEquals("Query must be a Roman numeral", e.getMessage());
+    }
+
+    @Test
+    void testArithmetic_BeyondReloadedTable() throws Exception {
+        AEMService service = new AEMService();
+        service.reload(1, 10).get(10, TimeUnit.SECONDS);
+        // a request still accepting the previous range gets a new value for a sum beyond the new table
+        RomanNumeral sum = service.add("X", "X", 1, 3999);
+        assertEquals(20, sum.intValue());
+        assertEquals("XX", sum.toString());
+    }
+
+    @Test
+    void testConvertBatch() throws IOException {
+        AEMService service = new AEMService();
+        String batch = "[\"5\", 3999, \" 27 \", \"abc\", \"4000\", null, {\"a\":1}]";
+        String expected = "{\"conversions\":["
+                + "{\"input\":\"5\",\"output\":\"V\"},"
+                + "{\"input\":\"3999\",\"output\":\"MMMCMXCIX\"},"
+                + "{\"input\":\" 27 \",\"output\":\"XXVII\"},"
+                + "{\"input\":\"abc\",\"error\":\"Query must be an integer\"},"
+                + "{\"input\":\"4000\",\"error\":\"Query must be within range of 1-3999\"},"
+                + "{\"input\":null,\"error\":\"Query must contain a value\"},"
+                + "{\"input\":null,\"error\":\"Query must be an integer\"}]}";
+        assertEquals(expected, convertBatch(service, batch, 10));
+    }
+
+    @Test
+    void testConvertBatch_MaxSize() throws IOException {
+        AEMService service = new AEMService();
+        String expected = "{\"conversions\":[{\"input\":\"1\",\"output\":\"I\"},{\"input\":\"2\",\"output\":\"II\"},"
+                + "{\"error\":\"Batch must not contain more than 2 items\"}]}";
+        assertEquals(expected, convertBatch(service, "[1, 2, 3, 4]", 2));
+    }
+
+    @Test
+    void testConvertBatch_Malformed() throws IOException {
+        AEMService service = new AEMService();
+        InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> convertBatch(service, "{\"a\":1}", 10));
+        assertEquals("Batch must be a JSON array", e.getMessage());
+        assertThrows(InvalidRequestException.class, () -> convertBatch(service, "not json", 10));
+
+        String expected = "{\"conversions\":[{\"input\":\"1\",\"output\":\"I\"},{\"error\":\"Batch must be a JSON array\"}]}";
+        assertEquals(expected, convertBatch(service, "[1, ", 10));
+    }
+
+    private static String convertBatch(AEMService service, String batch, int maxBatchSize) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.convertBatch(new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8)), outputStream, 1, 3999,
+                maxBatchSize);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    @Test
+    void testMetrics() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AEMService service = new AEMService(1, 3999, 2048, registry);
+        service.convert(5, 1, 3999);
+        service.convert(6, 1, 3999);
+        service.convert(1, 10, 1, 3999);
+        assertThrows(InvalidRequestException.class, () -> service.parse("IIII", 1, 3999));
+        convertBatch(service, "[\"abc\", \"4000\"]", 10);
+
+        assertEquals(2, registry.get("romannumeral.conversion").tag("type", "single").timer().count());
+        assertEquals(1, registry.get("romannumeral.conversion").tag("type", "range").timer().count());
+        assertEquals(10, registry.get("romannumeral.range.size").tag("type", "range").summary().totalAmount());
+        assertEquals(1, registry.get("romannumeral.validation.failures").tag("reason", "not_roman").counter().count());
+        // batch items are validated on the registry of the service
+        assertEquals(1, registry.get("romannumeral.validation.failures").tag("reason", "not_integer").counter().count());
+        assertEquals(1, registry.get("romannumeral.validation.failures").tag("reason", "out_of_range").counter().count());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.adobe.aem.service;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.domain.RomanNumeral;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumeralTableTest {
+
+    @Test
+    void testBuild() {
+        NumeralTable table = NumeralTable.build(1, 3999);
+        assertEquals(3999, table.size());
+        assertEquals("I", table.get(1));
+        assertEquals("MMMDCCCLXXXVIII", table.get(3888));
+        assertEquals("MMMCMXCIX", table.get(3999));
+        assertNull(table.get(0));
+        assertNull(table.get(4000));
+        assertTrue(table.getEstimatedBytes() > 0);
+    }
+
+    @Test
+    void testBuild_CapsAtStandardMax() {
+        NumeralTable table = NumeralTable.build(0, 100000);
+        assertEquals(NumeralTable.STANDARD_MAX, table.size());
+        assertNull(table.get(0));
+    }
+
+    @Test
+    void testGetRomanNumeral_SharesRomanString() {
+        NumeralTable table = NumeralTable.build(5, 10);
+        RomanNumeral numeral = table.getRomanNumeral(9);
+        assertEquals(9, numeral.intValue());
+        assertSame(table.get(9), numeral.toString());
+        assertSame(numeral, table.getRomanNumeral(9));
+        assertNull(table.getRomanNumeral(4));
+        assertNull(table.getRomanNumeral(11));
+    }
+
+    @Test
+    void testSlice() {
+        NumeralTable table = NumeralTable.build(5, 10);
+        assertArrayEquals(new String[]{"VI", "VII", "VIII"}, table.slice(6, 8));
+        assertArrayEquals(new String[]{"III", "IV", "V", "VI"}, table.slice(3, 6));
+        assertArrayEquals(new String[]{"X", "XI"}, table.slice(10, 11));
+        assertArrayEquals(new String[0], table.slice(8, 6));
+        // in-table values are shared, not copied
+        assertSame(table.get(7), table.slice(6, 8)[1]);
+    }
+
+    @Test
+    void testSliceNumerals_SharesTableInstances() {
+        NumeralTable table = NumeralTable.build(5, 10);
+        Numeral[] slice = table.sliceNumerals(9, 12, false, Notation.STANDARD);
+        assertEquals(new Numeral("9", "IX"), slice[0]);
+        assertEquals(new Numeral("12", "XII"), slice[3]);
+        // in-table conversions are the flyweights of the table, beyond it they are created
+        assertSame(table.getNumeral(9), slice[0]);
+        assertSame(table.getNumeral(10), table.sliceNumerals(10, 10, true, Notation.STANDARD)[0]);
+        assertNull(table.getNumeral(12));
+    }
+
+    @Test
+    void testSliceNumerals_ConvertsOnlyNumbersBeyondTable() {
+        NumeralTable table = NumeralTable.build(5, 10);
+        assertEquals(0, table.countMissing(5, 10));
+        assertEquals(5, table.countMissing(2, 12));
+        assertEquals(3, table.countMissing(20, 22));
+        assertEquals(0, table.countMissing(8, 6));
+
+        // numbers on both sides of the table, converted in parallel around the copied ones
+        Numeral[] slice = table.sliceNumerals(2, 12, true, Notation.STANDARD);
+        assertEquals(new Numeral("2", "II"), slice[0]);
+        assertEquals(new Numeral("4", "IV"), slice[2]);
+        assertSame(table.getNumeral(5), slice[3]);
+        assertSame(table.getNumeral(10), slice[8]);
+        assertEquals(new Numeral("12", "XII"), slice[10]);
+        assertEquals(new Numeral("21", "XXI"), table.sliceNumerals(20, 22, true, Notation.STANDARD)[1]);
+    }
+
+}
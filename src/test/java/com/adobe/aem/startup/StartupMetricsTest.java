@@ -0,0 +1,38 @@
+package com.adobe.aem.startup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StartupMetrics startupMetrics = new StartupMetrics(false, registry);
+
+    @Test
+    void testFirstResponse_RecordedOnce() throws Exception {
+        assertTrue(Double.isNaN(registry.get("romannumeral.startup.first-response").timeGauge()
+                .value(TimeUnit.MILLISECONDS)));
+
+        startupMetrics.doFilter(new MockHttpServletRequest("GET", "/romannumeral"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        long first = startupMetrics.getFirstResponseMillis();
+        assertTrue(first > 0);
+        Thread.sleep(5);
+        startupMetrics.doFilter(new MockHttpServletRequest("GET", "/romannumeral"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertEquals(first, startupMetrics.getFirstResponseMillis());
+        assertEquals(first, registry.get("romannumeral.startup.first-response").timeGauge()
+                .value(TimeUnit.MILLISECONDS), 0.0);
+        assertTrue(Double.isNaN(registry.get("romannumeral.startup.time").timeGauge().value(TimeUnit.MILLISECONDS)));
+    }
+
+}
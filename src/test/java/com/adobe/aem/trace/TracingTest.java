@@ -0,0 +1,129 @@
+package com.adobe.aem.trace;
+
+import com.adobe.aem.controller.NumeralJsonHttpMessageConverter;
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.exception.InvalidRequestException;
+import com.adobe.aem.service.AEMService;
+import com.adobe.aem.util.RequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingTest {
+
+    private static final String[] EVENTS = {"com.adobe.aem.Request", "com.adobe.aem.Validation",
+            "com.adobe.aem.Conversion", "com.adobe.aem.Serialization"};
+
+    private final AEMService service = new AEMService();
+    private final RequestValidator validator = new RequestValidator(new SimpleMeterRegistry());
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        Tracing.setEnabled(false);
+    }
+
+    @Test
+    void testEnabled_RecordsEvents() throws Exception {
+        Tracing.setEnabled(true);
+        List<RecordedEvent> events = record(() -> {
+            validator.validate("5", 1, 3999);
+            assertThrows(InvalidRequestException.class, () -> validator.validate("4000", 1, 3999));
+            service.convert(5, 1, 3999);
+            service.convert(1, 10, 1, 3999, Notation.STANDARD);
+            service.convert(4000, 4010, 1, 5000, Notation.VINCULUM, new ByteArrayOutputStream());
+            new NumeralJsonHttpMessageConverter().write(new Numeral("5", "V"), MediaType.APPLICATION_JSON,
+                    new MockHttpOutputMessage());
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/romannumeral");
+            new MockFilterChain(new HttpServlet() { }, new TracingFilter())
+                    .doFilter(request, new MockHttpServletResponse());
+        });
+
+        List<RecordedEvent> validations = named(events, "com.adobe.aem.Validation");
+        assertEquals(2, validations.size());
+        assertTrue(validations.get(0).getBoolean("valid"));
+        assertFalse(validations.get(1).getBoolean("valid"));
+        assertEquals(3999, validations.get(1).getInt("max"));
+
+        List<RecordedEvent> conversions = named(events, "com.adobe.aem.Conversion");
+        assertEquals(3, conversions.size());
+        assertEquals("single", conversions.get(0).getString("type"));
+        assertEquals("range", conversions.get(1).getString("type"));
+        assertEquals(10, conversions.get(1).getInt("to"));
+        assertEquals("stream", conversions.get(2).getString("type"));
+        assertEquals("vinculum", conversions.get(2).getString("notation"));
+
+        List<RecordedEvent> serializations = named(events, "com.adobe.aem.Serialization");
+        assertEquals(1, serializations.size());
+        assertEquals("json", serializations.get(0).getString("format"));
+        assertEquals("Numeral", serializations.get(0).getString("type"));
+        assertEquals(26, serializations.get(0).getLong("bytes"));
+
+        List<RecordedEvent> requests = named(events, "com.adobe.aem.Request");
+        assertEquals(1, requests.size());
+        assertEquals("GET", requests.get(0).getString("method"));
+        assertEquals("/romannumeral", requests.get(0).getString("endpoint"));
+    }
+
+    @Test
+    void testDisabled_RecordsNothing() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            validator.validate("5", 1, 3999);
+            service.convert(5, 1, 3999);
+            service.convert(1, 10, 1, 3999, Notation.STANDARD);
+        });
+        assertTrue(events.isEmpty());
+    }
+
+    private List<RecordedEvent> record(Traced traced) throws Exception {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            traced.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.adobe.aem."))
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    private interface Traced {
+        void run() throws Exception;
+    }
+
+}
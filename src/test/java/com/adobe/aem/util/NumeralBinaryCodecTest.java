@@ -0,0 +1,58 @@
+package com.adobe.aem.util;
+
+import com.adobe.aem.domain.Conversions;
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.domain.Numeral;
+import com.adobe.aem.service.AEMService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumeralBinaryCodecTest {
+
+    @Test
+    void testEncode_Numeral() {
+        byte[] expected = {0x01, 1, '5', 1, 'V'};
+        assertArrayEquals(expected, NumeralBinaryCodec.encode(new Numeral("5", "V")));
+        assertEquals(new Numeral("5", "V"), NumeralBinaryCodec.decode(expected));
+        // overlines are two bytes in UTF-8
+        Numeral vinculum = new Numeral("5000", "V\u0305");
+        assertEquals(vinculum, NumeralBinaryCodec.decode(NumeralBinaryCodec.encode(vinculum)));
+    }
+
+    @Test
+    void testEncode_Conversions() {
+        Conversions conversions = new Conversions(300, Arrays.asList(new Numeral("300", "CCC"), new Numeral("301", "CCCI")));
+        // 300 is the two byte varint 0xac 0x02
+        byte[] expected = {0x02, (byte) 0xac, 0x02, 2, 3, 'C', 'C', 'C', 4, 'C', 'C', 'C', 'I'};
+        assertArrayEquals(expected, NumeralBinaryCodec.encode(conversions));
+        assertEquals(conversions, NumeralBinaryCodec.decode(expected));
+
+        Conversions empty = new Conversions(7, Collections.emptyList());
+        assertEquals(empty, NumeralBinaryCodec.decode(NumeralBinaryCodec.encode(empty)));
+    }
+
+    @Test
+    void testEncode_FullRange() {
+        Conversions conversions = new AEMService().convert(1, 3999, 1, 3999, Notation.STANDARD);
+        byte[] bytes = NumeralBinaryCodec.encode(conversions);
+        assertEquals(conversions, NumeralBinaryCodec.decode(bytes));
+        // a length and the letters per numeral, instead of the input and keys of each JSON object
+        assertEquals(4 + 3999 + conversions.getConversions().stream().mapToInt(n -> n.getRoman().length()).sum(),
+                bytes.length);
+    }
+
+    @Test
+    void testDecode_Malformed() {
+        for (byte[] bytes : new byte[][]{{}, {0x03}, {0x01, 5, 'V'}, {0x02, 1, 100, 1, 'I'}, {0x01, 1, '5', 1, 'V', 0},
+                {0x02, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0}}) {
+            assertThrows(IllegalArgumentException.class, () -> NumeralBinaryCodec.decode(bytes));
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.adobe.aem.util;
+
+import com.adobe.aem.domain.Notation;
+import com.adobe.aem.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestValidatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestValidator validator = new RequestValidator(registry);
+
+    @Test
+    void testValidate() {
+        assertEquals(1, validator.validate("1", 1, 3999));
+        assertEquals(3999, validator.validate("3999", 1, 3999));
+        assertEquals(27, validator.validate(" 27 ", 1, 3999));
+        assertEquals(5, validator.validate("\t005\n", 1, 3999));
+    }
+
+    @Test
+    void testValidate_Blank() {
+        for (String request : new String[]{null, "", "   ", "\t"}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                    () -> validator.validate(request, 1, 3999));
+            assertEquals("Query must contain a value", e.getMessage());
+        }
+    }
+
+    @Test
+    void testValidate_NonInteger() {
+        for (String request : new String[]{"abc", "-1", "+1", "1.5", "1 2", "12a", "99999999999x"}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                    () -> validator.validate(request, 1, 3999));
+            assertEquals("Query must be an integer", e.getMessage());
+        }
+    }
+
+    @Test
+    void testValidate_OutOfRange() {
+        for (String request : new String[]{"0", "4000", "2147483648", "99999999999", "99999999999999999999999"}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                    () -> validator.validate(request, 1, 3999));
+            assertEquals("Query must be within range of 1-3999", e.getMessage());
+        }
+        assertEquals(Integer.MAX_VALUE, validator.validate("2147483647", 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testValidate_NamedParameter() {
+        assertEquals(2, validator.validate("limit", " 02", 1, 3999));
+        assertEquals("limit must be within range of 1-3999", assertThrows(InvalidRequestException.class,
+                () -> validator.validate("limit", "4000", 1, 3999)).getMessage());
+        assertEquals("offset must be an integer", assertThrows(InvalidRequestException.class,
+                () -> validator.validate("offset", "-1", 0, Integer.MAX_VALUE)).getMessage());
+        assertEquals("offset must contain a value", assertThrows(InvalidRequestException.class,
+                () -> validator.validate("offset", "", 0, Integer.MAX_VALUE)).getMessage());
+    }
+
+    @Test
+    void testValidate_CountsFailures() {
+        assertThrows(InvalidRequestException.class, () -> validator.validate(" ", 1, 3999));
+        assertThrows(InvalidRequestException.class, () -> validator.validate("abc", 1, 3999));
+        assertThrows(InvalidRequestException.class, () -> validator.validate("0", 1, 3999));
+        assertThrows(InvalidRequestException.class, () -> validator.validate("4000", 1, 3999));
+        validator.validate("5", 1, 3999);
+
+        assertEquals(1, registry.get(RequestValidator.VALIDATION_FAILURES).tag("reason", "blank").counter().count());
+        assertEquals(1, registry.get(RequestValidator.VALIDATION_FAILURES).tag("reason", "not_integer").counter().count());
+        assertEquals(2, registry.get(RequestValidator.VALIDATION_FAILURES).tag("reason", "out_of_range").counter().count());
+    }
+
+    @Test
+    void testValidateResult() {
+        assertEquals(21, validator.validateResult(21, 1, 3999));
+        for (long result : new long[]{0, -5, 4000, 2L * Integer.MAX_VALUE}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                    () -> validator.validateResult(result, 1, 3999));
+            assertEquals("Result must be within range of 1-3999", e.getMessage());
+        }
+    }
+
+    @Test
+    void testValidateNotation() {
+        assertEquals(Notation.STANDARD, validator.validateNotation(null));
+        assertEquals(Notation.STANDARD, validator.validateNotation(" "));
+        assertEquals(Notation.VINCULUM, validator.validateNotation("vinculum"));
+        assertEquals(Notation.PARENTHESES, validator.validateNotation(" Parentheses "));
+        InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                () -> validator.validateNotation("apostrophus"));
+        assertEquals("Notation must be one of standard, vinculum, parentheses", e.getMessage());
+    }
+
+}